@@ -0,0 +1,109 @@
+package com.liujun.benchmark;
+
+import com.liujun.bean.PersonA;
+import com.liujun.bean.PersonB;
+import com.liujun.bean.PersonBeanFactory;
+import com.liujun.utils.BeanFieldsUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个对象、map的属性复制: 对象->对象、对象->map、map->对象、map->map<br/>
+ * 对象->对象分别使用REFLECT、LAMBDA引擎
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanFieldsBenchmark {
+
+    /**
+     * 对象->对象复制使用的引擎
+     */
+    @Param({"REFLECT", "LAMBDA"})
+    private BeanFieldsUtils.CopyEngine copyEngine;
+
+    private PersonA personA;
+
+    private PersonB personB;
+
+    private Map<String, String> personAMap;
+
+    private Map<String, Object> personBMap;
+
+    /**
+     * 只保留int的age、double的height
+     */
+    private final List<String> primitiveOnlyIgnore = Arrays.asList("name", "weight");
+
+    private final PersonB primitiveOnlyTarget = new PersonB();
+
+    @Setup
+    public void setup() {
+        personA = PersonBeanFactory.personA();
+        personB = PersonBeanFactory.personB();
+        personAMap = new HashMap<String, String>() {
+        };
+        BeanFieldsUtils.copyPropertyToKey(personA, personAMap);
+        personBMap = PersonBeanFactory.personBMap();
+    }
+
+    @Benchmark
+    public PersonB propertyToProperty() {
+        PersonB target = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA, target, copyEngine);
+        return target;
+    }
+
+    /**
+     * PersonA字符串的age、height直接解析写入PersonB的int、double属性，-prof gc的gc.alloc.rate.norm应接近0
+     */
+    @Benchmark
+    public PersonB primitiveOnly() {
+        BeanFieldsUtils.copyPropertyToProperty(personA, primitiveOnlyTarget, false, null, primitiveOnlyIgnore, null, false, null, copyEngine);
+        return primitiveOnlyTarget;
+    }
+
+    @Benchmark
+    public Map<String, Object> propertyToKey() {
+        Map<String, Object> target = new HashMap<String, Object>() {
+        };
+        BeanFieldsUtils.copyPropertyToKey(personB, target);
+        return target;
+    }
+
+    @Benchmark
+    public PersonB keyToProperty() {
+        PersonB target = new PersonB();
+        BeanFieldsUtils.copyKeyToProperty(personAMap, target);
+        return target;
+    }
+
+    @Benchmark
+    public Map<String, String> keyToKey() {
+        Map<String, String> target = new HashMap<String, String>() {
+        };
+        BeanFieldsUtils.copyKeyToKey(personBMap, target);
+        return target;
+    }
+}
@@ -0,0 +1,104 @@
+package com.liujun.benchmark;
+
+import com.liujun.bean.PersonA;
+import com.liujun.bean.PersonB;
+import com.liujun.bean.PersonBeanFactory;
+import com.liujun.utils.BeanFieldsUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表的属性复制: 对象->对象、对象->map、map->对象、map->map
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanFieldsListBenchmark {
+
+    @Param({"100", "10000"})
+    private int listSize;
+
+    private List<PersonA> personAList;
+
+    private List<PersonB> personBList;
+
+    private List<Map<String, String>> personAMapList;
+
+    private List<Map<String, Object>> personBMapList;
+
+    @Setup
+    public void setup() {
+        personAList = new ArrayList<PersonA>() {
+        };
+        personBList = new ArrayList<PersonB>() {
+        };
+        personAMapList = new ArrayList<>();
+        personBMapList = new ArrayList<>();
+        for (int i = 0; i < listSize; i++) {
+            PersonA personA = i % 2 == 0 ? PersonBeanFactory.personA() : PersonBeanFactory.personA2();
+            personA.setName(personA.getName() + i);
+            personAList.add(personA);
+            PersonB personB = i % 2 == 0 ? PersonBeanFactory.personB() : PersonBeanFactory.personB2();
+            personB.setAge(i);
+            personBList.add(personB);
+            Map<String, String> personAMap = new HashMap<String, String>() {
+            };
+            BeanFieldsUtils.copyPropertyToKey(personA, personAMap);
+            personAMapList.add(personAMap);
+            Map<String, Object> personBMap = i % 2 == 0 ? PersonBeanFactory.personBMap() : PersonBeanFactory.personBMap2();
+            personBMap.put("age", i);
+            personBMapList.add(personBMap);
+        }
+    }
+
+    @Benchmark
+    public List<PersonB> listPropertyToProperty() {
+        List<PersonB> target = new ArrayList<PersonB>() {
+        };
+        BeanFieldsUtils.copyListPropertyToProperty(personAList, target);
+        return target;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> listPropertyToKey() {
+        List<Map<String, Object>> target = new ArrayList<>();
+        BeanFieldsUtils.copyListPropertyToKey(personBList, target);
+        return target;
+    }
+
+    @Benchmark
+    public List<PersonB> listKeyToProperty() {
+        List<PersonB> target = new ArrayList<PersonB>() {
+        };
+        BeanFieldsUtils.copyListKeyToProperty(personAMapList, target);
+        return target;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> listKeyToKey() {
+        List<Map<String, Object>> target = new ArrayList<>();
+        BeanFieldsUtils.copyListKeyToKey(personBMapList, target);
+        return target;
+    }
+}
@@ -0,0 +1,74 @@
+package com.liujun.benchmark;
+
+import com.liujun.pinyin.PinYinUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 汉字转拼音: 姓名、带数字和英文的地址、长段落
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PinYinBenchmark {
+
+    private static final String NAME = "欧阳晓明";
+
+    private static final String ADDRESS = "广东省深圳市南山区科技园南区高新南七道18号A座1205室";
+
+    private static final String PARAGRAPH = "春节前夕，各地交通部门提前部署春运工作，铁路、公路、民航客运量预计将比去年同期增长15%以上。"
+            + "为了让旅客平安顺利回家，车站增开了夜间临时列车，并在候车大厅设置了便民服务台，提供热水、充电和行李寄存等服务。"
+            + "与此同时，部分城市的地铁也延长了运营时间，方便旅客换乘。专家提醒，出行前应通过官方App查询车次信息，合理安排行程。";
+
+    @Param({"name", "address", "paragraph"})
+    private String textType;
+
+    private String text;
+
+    @Setup
+    public void setup() {
+        switch (textType) {
+            case "name":
+                text = NAME;
+                break;
+            case "address":
+                text = ADDRESS;
+                break;
+            default:
+                text = PARAGRAPH;
+                break;
+        }
+    }
+
+    @Benchmark
+    public String getPingYin() {
+        return PinYinUtil.getPingYin(text);
+    }
+
+    @Benchmark
+    public String getFirstSpell() {
+        return PinYinUtil.getFirstSpell(text);
+    }
+
+    @Benchmark
+    public String getFullSpell() {
+        return PinYinUtil.getFullSpell(text);
+    }
+}
@@ -0,0 +1,131 @@
+package com.liujun.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.liujun.utils.TreeModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TreeModel.getTree生成整棵树，分别按isChild逐个比较、按getParentKey建立索引<br/>
+ * 节点i的父节点为(i-1)/fanOut，fanOut越小树越深: 10万节点fanOut=2时深度为17，fanOut=256时深度为3<br/>
+ * 按isChild逐个比较的实现耗时随节点数平方增长，节点数最多测到100000；100万节点只测getParentKey，见TreeModelParentKeyBenchmark
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss16m", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TreeModelBenchmark {
+
+    /**
+     * isChild实现为O(n²)，不测更大的树
+     */
+    @Param({"1000", "100000"})
+    private int nodeCount;
+
+    @Param({"2", "16", "256"})
+    private int fanOut;
+
+    /**
+     * isChild: 只实现isChild；parentKey: 重写getParentKey
+     */
+    @Param({"isChild", "parentKey"})
+    private String mode;
+
+    private NodeTree tree;
+
+    @Setup
+    public void setup() {
+        tree = "parentKey".equals(mode) ? new ParentKeyNodeTree(nodeCount, fanOut) : new NodeTree(nodeCount, fanOut);
+    }
+
+    @Benchmark
+    public JSONObject getTree() {
+        return tree.getTree();
+    }
+
+    public static class Node {
+        private final Integer id;
+        private final Integer parentId;
+        private final String name;
+
+        Node(Integer id, Integer parentId, String name) {
+            this.id = id;
+            this.parentId = parentId;
+            this.name = name;
+        }
+    }
+
+    static class NodeTree extends TreeModel<Node, Integer> {
+        private final List<Node> nodes;
+
+        NodeTree(int nodeCount, int fanOut) {
+            nodes = new ArrayList<>(nodeCount);
+            nodes.add(new Node(0, -1, "root"));
+            for (int i = 1; i < nodeCount; i++) {
+                nodes.add(new Node(i, (i - 1) / fanOut, "node" + i));
+            }
+        }
+
+        @Override
+        public boolean isChild(Integer parentPrimaryKey, Node entity) {
+            return parentPrimaryKey.equals(entity.parentId);
+        }
+
+        @Override
+        public List<Node> getAllEntity() {
+            return nodes;
+        }
+
+        @Override
+        public Node getRootEntity() {
+            return nodes.get(0);
+        }
+
+        @Override
+        public void removeEntities(Integer[] primaryKeys) {
+        }
+
+        @Override
+        public JSONObject getNode(Node entity) {
+            JSONObject node = new JSONObject();
+            node.put("id", entity.id);
+            node.put("name", entity.name);
+            return node;
+        }
+
+        @Override
+        public Integer getPrimaryKey(Node entity) {
+            return entity.id;
+        }
+    }
+
+    static class ParentKeyNodeTree extends NodeTree {
+
+        ParentKeyNodeTree(int nodeCount, int fanOut) {
+            super(nodeCount, fanOut);
+        }
+
+        @Override
+        public Integer getParentKey(Node entity) {
+            return entity.parentId;
+        }
+    }
+}
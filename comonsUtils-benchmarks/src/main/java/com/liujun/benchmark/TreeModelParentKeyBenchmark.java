@@ -0,0 +1,50 @@
+package com.liujun.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100万节点的TreeModel.getTree，只测重写getParentKey的实现<br/>
+ * 树的结构与TreeModelBenchmark相同，isChild实现在该规模下耗时过长，不参与
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss16m", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TreeModelParentKeyBenchmark {
+
+    @Param({"1000000"})
+    private int nodeCount;
+
+    @Param({"2", "16", "256"})
+    private int fanOut;
+
+    private TreeModelBenchmark.NodeTree tree;
+
+    @Setup
+    public void setup() {
+        tree = new TreeModelBenchmark.ParentKeyNodeTree(nodeCount, fanOut);
+    }
+
+    @Benchmark
+    public JSONObject getTree() {
+        return tree.getTree();
+    }
+}
@@ -1,7 +1,7 @@
 package com.liujun.bean;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import com.liujun.utils.DateFormatUtils;
+
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,15 +14,7 @@ import java.util.Map;
  */
 public class PersonBeanFactory {
     public static String birthStr = "2000-01-01 01:02:03";
-    public static Date birth;
-
-    static {
-        try {
-            birth = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(birthStr);
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-    }
+    public static Date birth = DateFormatUtils.parseDate(birthStr);
 
     public static PersonA personA() {
         return new PersonA("迪迦", "1800", "男", "6000", "175", "2000-01-01 01:02:03");
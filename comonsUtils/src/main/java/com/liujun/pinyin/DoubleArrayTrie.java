@@ -0,0 +1,204 @@
+package com.liujun.pinyin;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 双数组字典树，构建后不可修改<br/>
+ * 字符先映射为连续的编码(1..字符种类数)，编码0表示词结束；状态s经编码c转移到t=base[s]+c，要求check[t]=s+1<br/>
+ * 词结束节点的base保存-(词下标+1)，查询过程不创建对象
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class DoubleArrayTrie {
+
+    /**
+     * 字符到编码的映射，0表示字符不在任何词中
+     */
+    private final char[] codes;
+
+    private final int[] base;
+
+    private final int[] check;
+
+    /**
+     * @param keys 已排序、不重复、非空的词，词的值为其在列表中的下标
+     */
+    DoubleArrayTrie(List<String> keys) {
+        codes = new char[Character.MAX_VALUE + 1];
+        char code = 0;
+        boolean[] seen = new boolean[Character.MAX_VALUE + 1];
+        for (String key : keys) {
+            for (int i = 0; i < key.length(); i++) {
+                seen[key.charAt(i)] = true;
+            }
+        }
+        for (int c = 0; c < seen.length; c++) {
+            if (seen[c]) {
+                codes[c] = ++code;
+            }
+        }
+        Builder builder = new Builder(keys, codes, Math.max(16, keys.size() * 4));
+        builder.build();
+        int size = builder.maxPosition + 1;
+        base = Arrays.copyOf(builder.base, size);
+        check = Arrays.copyOf(builder.check, size);
+    }
+
+    /**
+     * 从offset开始查找最长的词
+     *
+     * @param text   文本
+     * @param offset 开始位置
+     * @param end    结束位置(不包含)
+     * @return 最长词的下标，没有匹配时返回-1
+     */
+    int longestMatch(CharSequence text, int offset, int end) {
+        int result = -1;
+        int state = 0;
+        for (int i = offset; i < end; i++) {
+            int code = codes[text.charAt(i)];
+            if (code == 0) {
+                break;
+            }
+            int next = base[state] + code;
+            if (next >= check.length || check[next] != state + 1) {
+                break;
+            }
+            state = next;
+            int terminal = base[state];
+            if (terminal < check.length && check[terminal] == state + 1) {
+                result = -base[terminal] - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 精确查找
+     *
+     * @param key 词
+     * @return 词的下标，不存在时返回-1
+     */
+    int get(CharSequence key) {
+        int length = key.length();
+        if (length == 0) {
+            return -1;
+        }
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            int code = codes[key.charAt(i)];
+            int next = base[state] + code;
+            if (code == 0 || next >= check.length || check[next] != state + 1) {
+                return -1;
+            }
+            state = next;
+        }
+        int terminal = base[state];
+        return terminal < check.length && check[terminal] == state + 1 ? -base[terminal] - 1 : -1;
+    }
+
+    /**
+     * 构建器，按(状态, 词区间, 深度)逐层放置子节点
+     */
+    private static final class Builder {
+        private final List<String> keys;
+        private final char[] codes;
+        private int[] base;
+        private int[] check;
+        private int maxPosition;
+        /**
+         * 第一个可能空闲的位置，之前的位置都已被占用
+         */
+        private int nextFree = 1;
+
+        private Builder(List<String> keys, char[] codes, int capacity) {
+            this.keys = keys;
+            this.codes = codes;
+            this.base = new int[capacity];
+            this.check = new int[capacity];
+        }
+
+        private void build() {
+            if (keys.isEmpty()) {
+                return;
+            }
+            //子节点数量不超过区间内词的数量
+            int[] childCodes = new int[keys.size()];
+            int[] childStarts = new int[keys.size() + 1];
+            //{状态, 词区间开始, 词区间结束, 深度}
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[]{0, 0, keys.size(), 0});
+            while (!stack.isEmpty()) {
+                int[] node = stack.pop();
+                int state = node[0];
+                int depth = node[3];
+                //区间内的词已排序，相同前缀下的子节点编码递增，词结束(编码0)排在最前
+                int childCount = 0;
+                for (int i = node[1]; i < node[2]; i++) {
+                    String key = keys.get(i);
+                    int code = key.length() == depth ? 0 : codes[key.charAt(depth)];
+                    if (childCount == 0 || childCodes[childCount - 1] != code) {
+                        childCodes[childCount] = code;
+                        childStarts[childCount] = i;
+                        childCount++;
+                    }
+                }
+                childStarts[childCount] = node[2];
+                int b = findBase(childCodes, childCount);
+                base[state] = b;
+                for (int i = 0; i < childCount; i++) {
+                    int position = b + childCodes[i];
+                    check[position] = state + 1;
+                    maxPosition = Math.max(maxPosition, position);
+                }
+                for (int i = childCount - 1; i >= 0; i--) {
+                    int position = b + childCodes[i];
+                    if (childCodes[i] == 0) {
+                        base[position] = -childStarts[i] - 1;
+                    } else {
+                        stack.push(new int[]{position, childStarts[i], childStarts[i + 1], depth + 1});
+                    }
+                }
+                while (nextFree < check.length && check[nextFree] != 0) {
+                    nextFree++;
+                }
+            }
+        }
+
+        /**
+         * 查找能放下全部子节点的base
+         */
+        private int findBase(int[] childCodes, int childCount) {
+            int firstCode = childCodes[0];
+            int lastCode = childCodes[childCount - 1];
+            for (int b = Math.max(1, nextFree - firstCode); ; b++) {
+                ensureCapacity(b + lastCode + 1);
+                if (check[b + firstCode] != 0) {
+                    continue;
+                }
+                boolean free = true;
+                for (int i = 1; i < childCount; i++) {
+                    if (check[b + childCodes[i]] != 0) {
+                        free = false;
+                        break;
+                    }
+                }
+                if (free) {
+                    return b;
+                }
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > check.length) {
+                int newCapacity = Math.max(capacity, check.length + (check.length >> 1));
+                base = Arrays.copyOf(base, newCapacity);
+                check = Arrays.copyOf(check, newCapacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.liujun.pinyin;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * UTF-8文件转拼音<br/>
+ * 通过FileChannel按块读取，块在换行处切分后交给线程池转换，按读取顺序写入输出文件<br/>
+ * 同时在处理中的块不超过线程数的2倍，内存占用与文件大小无关；每行的转换结果与PinYinMain交互模式相同(getPingYin后去掉空格)
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class PinYinFileConverter {
+
+    /**
+     * 默认块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private final int threads;
+
+    private final int chunkSize;
+
+    public PinYinFileConverter() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param threads   转换线程数，必须大于0
+     * @param chunkSize 块大小(字节)，必须大于0，一行超过块大小时该块自动扩大
+     */
+    public PinYinFileConverter(int threads, int chunkSize) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads必须大于0: " + threads);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize必须大于0: " + chunkSize);
+        }
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 转换文件，输出文件已存在时覆盖；输入、输出不能是同一个文件(包括链接到同一文件)
+     *
+     * @param input  输入文件(UTF-8)
+     * @param output 输出文件(UTF-8)
+     * @return 统计结果
+     * @throws IOException              读写失败
+     * @throws IllegalArgumentException 输入、输出是同一个文件
+     */
+    public Result convert(Path input, Path output) throws IOException {
+        //打开输出文件时会清空内容，同一个文件会丢失输入
+        if (Files.exists(output) && Files.isSameFile(input, output)) {
+            throw new IllegalArgumentException("输入、输出不能是同一个文件: " + input);
+        }
+        long start = System.nanoTime();
+        long lines = 0;
+        long bytes = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+            while (true) {
+                int read = in.read(buffer);
+                if (read < 0) {
+                    if (buffer.position() > 0) {
+                        //最后一行可能没有换行符
+                        byte[] chunk = Arrays.copyOf(buffer.array(), buffer.position());
+                        pending.add(executor.submit(() -> convert(chunk)));
+                    }
+                    break;
+                }
+                bytes += read;
+                if (buffer.hasRemaining()) {
+                    continue;
+                }
+                int end = lastLineEnd(buffer.array(), buffer.position());
+                if (end < 0) {
+                    //一行超过块大小，扩大后继续读取
+                    byte[] grown = Arrays.copyOf(buffer.array(), buffer.capacity() * 2);
+                    buffer = ByteBuffer.wrap(grown, buffer.position(), grown.length - buffer.position());
+                    continue;
+                }
+                byte[] chunk = Arrays.copyOf(buffer.array(), end);
+                pending.add(executor.submit(() -> convert(chunk)));
+                buffer.flip();
+                buffer.position(end);
+                buffer.compact();
+                while (pending.size() >= threads * 2) {
+                    lines += write(pending.poll(), out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                lines += write(pending.poll(), out);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(lines, bytes, System.nanoTime() - start);
+    }
+
+    /**
+     * 转换一行，结果追加到out，与PinYinMain交互模式相同：去掉首尾空白，转为拼音后去掉空格
+     *
+     * @param line 一行(不含换行符)
+     * @param out  输出
+     */
+    static void convertLine(CharSequence line, StringBuilder out) {
+        int from = out.length();
+        PinYinUtil.appendPingYin(line, out);
+        int write = from;
+        for (int i = from, length = out.length(); i < length; i++) {
+            char c = out.charAt(i);
+            if (c != ' ') {
+                out.setCharAt(write++, c);
+            }
+        }
+        out.setLength(write);
+    }
+
+    /**
+     * 转换完整的若干行，每行输出后加换行符
+     */
+    private static Chunk convert(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        StringBuilder out = new StringBuilder(text.length() * 2);
+        int lines = 0;
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            convertLine(text.substring(start, end), out);
+            out.append('\n');
+            lines++;
+            start = end + 1;
+        }
+        try {
+            //直接编码StringBuilder，不再复制为String
+            return new Chunk(StandardCharsets.UTF_8.newEncoder().encode(CharBuffer.wrap(out)), lines);
+        } catch (CharacterCodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 等待块转换完成并写入
+     *
+     * @return 块的行数
+     */
+    private static int write(Future<Chunk> future, FileChannel out) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("转换被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        ByteBuffer buffer = chunk.bytes;
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return chunk.lines;
+    }
+
+    /**
+     * UTF-8多字节字符中不会出现'\n'，可以直接按字节查找
+     *
+     * @return 最后一个换行符之后的位置，没有换行符时返回-1
+     */
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Chunk {
+        private final ByteBuffer bytes;
+        private final int lines;
+
+        private Chunk(ByteBuffer bytes, int lines) {
+            this.bytes = bytes;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * 转换统计结果
+     */
+    public static final class Result {
+        private final long lines;
+        private final long bytes;
+        private final long nanos;
+
+        private Result(long lines, long bytes, long nanos) {
+            this.lines = lines;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return 行数
+         */
+        public long getLines() {
+            return lines;
+        }
+
+        /**
+         * @return 输入字节数
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return 耗时(纳秒)
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return 每秒行数
+         */
+        public double getLinesPerSecond() {
+            return nanos == 0 ? 0 : lines * 1e9 / nanos;
+        }
+
+        /**
+         * @return 每秒输入MB数
+         */
+        public double getMegabytesPerSecond() {
+            return nanos == 0 ? 0 : bytes / 1048576.0 * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d行, %.2fMB, 耗时%dms, %.0f行/秒, %.2fMB/秒", lines, bytes / 1048576.0, nanos / 1000000,
+                    getLinesPerSecond(), getMegabytesPerSecond());
+        }
+    }
+}
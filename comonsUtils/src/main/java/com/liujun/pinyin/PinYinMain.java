@@ -1,15 +1,25 @@
 package com.liujun.pinyin;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
- * 类说明
+ * 类说明<br/>
+ * 不带参数时从控制台逐行读取，输入exit结束；带参数"输入文件 输出文件 [线程数]"时批量转换UTF-8文件
  *
  * @author liujun
  * @date 2023/1/10
  */
 public class PinYinMain {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2) {
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            PinYinFileConverter converter = new PinYinFileConverter(threads, PinYinFileConverter.DEFAULT_CHUNK_SIZE);
+            PinYinFileConverter.Result result = converter.convert(Paths.get(args[0]), Paths.get(args[1]));
+            System.out.println(result);
+            return;
+        }
         //获取输入的内容，获取到一行为c时结束
         Scanner scanner = new Scanner(System.in);
         StringBuffer sb = new StringBuffer();
@@ -23,4 +33,3 @@ public class PinYinMain {
         System.out.println(sb.toString().replaceAll(" ",""));
     }
 }
-
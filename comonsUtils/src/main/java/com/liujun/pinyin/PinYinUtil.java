@@ -1,17 +1,26 @@
 package com.liujun.pinyin;
-import net.sourceforge.pinyin4j.PinyinHelper;
-import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
-import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
-import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
-import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
-import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.io.IOException;
+
 /**
- * 类说明
+ * 类说明<br/>
+ * 汉字U+4E00-U+9FA5通过PinyinTable数组查找拼音，其他字符通过pinyin4j查找<br/>
+ * 多音字按PolyphoneDictionary词典正向最大匹配，匹配到的词使用词典中的读音<br/>
+ * append系列方法把结果追加到调用方提供的StringBuilder/Appendable，逐字符过滤，不产生中间字符串；
+ * 返回String的方法使用线程复用的StringBuilder，只创建最终的String
  *
  * @author liujun
  * @date 2023/1/10
  */
 public class PinYinUtil {
+
+    /**
+     * 线程复用的StringBuilder超过该容量时不再复用，防止长期占用内存
+     */
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
     /**
      * 将字符串中的中文转化为拼音,其他字符不变
      *
@@ -19,74 +28,280 @@ public class PinYinUtil {
      * @return
      */
     public static String getPingYin(String inputString) {
-        HanyuPinyinOutputFormat format = new HanyuPinyinOutputFormat();
-        format.setCaseType(HanyuPinyinCaseType.LOWERCASE);
-        format.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
-        format.setVCharType(HanyuPinyinVCharType.WITH_V);
-        char[] input = inputString.trim().toCharArray();
-        String output = "";
-        try {
-            for (int i = 0; i < input.length; i++) {
-                if (java.lang.Character.toString(input[i]).matches("[\\u4E00-\\u9FA5]+")) {
-                    String[] temp = PinyinHelper.toHanyuPinyinStringArray(input[i], format);
-                    output += temp[0];
-                } else
-                    output += java.lang.Character.toString(input[i]);
+        StringBuilder output = buffer();
+        appendPingYin(inputString, output);
+        return release(output);
+    }
+
+    /**
+     * 将字符串中的中文转化为拼音(ü写作v)追加到out，其他字符不变，忽略首尾空白
+     *
+     * @param input 字符串
+     * @param out   输出
+     * @return out
+     */
+    public static StringBuilder appendPingYin(CharSequence input, StringBuilder out) {
+        int start = 0;
+        int end = input.length();
+        //与String.trim相同，忽略首尾小于等于空格的字符
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        PolyphoneDictionary.Compiled words = PolyphoneDictionary.getDefault().compiled();
+        for (int i = start; i < end; i++) {
+            int word = words.match(input, i, end);
+            if (word >= 0) {
+                int length = words.length(word);
+                for (int j = 0; j < length; j++) {
+                    out.append(words.withV(word, j));
+                }
+                i += length - 1;
+                continue;
             }
-        } catch (BadHanyuPinyinOutputFormatCombination e) {
-            e.printStackTrace();
+            char c = input.charAt(i);
+            String pinyin = PinyinTable.covers(c) ? PinyinTable.withV(c) : null;
+            if (pinyin != null) {
+                out.append(pinyin);
+            } else {
+                out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 将字符串中的中文转化为拼音(ü写作v)追加到out，其他字符不变，忽略首尾空白
+     *
+     * @param input 字符串
+     * @param out   输出
+     * @return out
+     * @throws IOException 写入out失败
+     */
+    public static <A extends Appendable> A appendPingYin(CharSequence input, A out) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendPingYin(input, (StringBuilder) out);
+            return out;
+        }
+        StringBuilder buffer = buffer();
+        try {
+            out.append(appendPingYin(input, buffer));
+        } finally {
+            recycle(buffer);
         }
-        return output;
+        return out;
     }
+
     /**
      * 获取汉字串拼音首字母，英文字符不变
      * @param chinese 汉字串
      * @return 汉语拼音首字母
      */
     public static String getFirstSpell(String chinese) {
-        StringBuffer pybf = new StringBuffer();
-        char[] arr = chinese.toCharArray();
-        HanyuPinyinOutputFormat defaultFormat = new HanyuPinyinOutputFormat();
-        defaultFormat.setCaseType(HanyuPinyinCaseType.LOWERCASE);
-        defaultFormat.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
-        for (int i = 0; i < arr.length; i++) {
-            if (arr[i] > 128) {
-                try {
-                    String[] temp = PinyinHelper.toHanyuPinyinStringArray(arr[i], defaultFormat);
-                    if (temp != null) {
-                        pybf.append(temp[0].charAt(0));
-                    }
-                } catch (BadHanyuPinyinOutputFormatCombination e) {
-                    e.printStackTrace();
+        StringBuilder pybf = buffer();
+        appendFirstSpell(chinese, pybf);
+        return release(pybf);
+    }
+
+    /**
+     * 获取汉字串拼音首字母追加到out，只保留字母、数字、下划线
+     * @param chinese 汉字串
+     * @param out 输出
+     * @return out
+     */
+    public static StringBuilder appendFirstSpell(CharSequence chinese, StringBuilder out) {
+        PolyphoneDictionary.Compiled words = PolyphoneDictionary.getDefault().compiled();
+        for (int i = 0, end = chinese.length(); i < end; i++) {
+            int word = words.match(chinese, i, end);
+            if (word >= 0) {
+                int length = words.length(word);
+                for (int j = 0; j < length; j++) {
+                    out.append(words.firstLetter(word, j));
                 }
-            } else {
-                pybf.append(arr[i]);
+                i += length - 1;
+                continue;
             }
+            char c = chinese.charAt(i);
+            if (c > 128) {
+                char firstLetter = firstLetter(c);
+                if (firstLetter != 0 && isWordChar(firstLetter)) {
+                    out.append(firstLetter);
+                }
+            } else if (isWordChar(c)) {
+                out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 获取汉字串拼音首字母追加到out，只保留字母、数字、下划线
+     * @param chinese 汉字串
+     * @param out 输出
+     * @return out
+     * @throws IOException 写入out失败
+     */
+    public static <A extends Appendable> A appendFirstSpell(CharSequence chinese, A out) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendFirstSpell(chinese, (StringBuilder) out);
+            return out;
+        }
+        StringBuilder buffer = buffer();
+        try {
+            out.append(appendFirstSpell(chinese, buffer));
+        } finally {
+            recycle(buffer);
         }
-        return pybf.toString().replaceAll("\\W", "").trim();
+        return out;
     }
+
     /**
-     * 获取汉字串拼音，英文字符不变
+     * 获取汉字串拼音，英文字符不变，没有读音的字符也不变
      * @param chinese 汉字串
      * @return 汉语拼音
      */
     public static String getFullSpell(String chinese) {
-        StringBuffer pybf = new StringBuffer();
-        char[] arr = chinese.toCharArray();
-        HanyuPinyinOutputFormat defaultFormat = new HanyuPinyinOutputFormat();
-        defaultFormat.setCaseType(HanyuPinyinCaseType.LOWERCASE);
-        defaultFormat.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
-        for (int i = 0; i < arr.length; i++) {
-            if (arr[i] > 128) {
-                try {
-                    pybf.append(PinyinHelper.toHanyuPinyinStringArray(arr[i], defaultFormat)[0]);
-                } catch (BadHanyuPinyinOutputFormatCombination e) {
-                    e.printStackTrace();
+        StringBuilder pybf = buffer();
+        appendFullSpell(chinese, pybf);
+        return release(pybf);
+    }
+
+    /**
+     * 获取汉字串拼音(ü写作u:)追加到out，英文字符不变，没有读音的字符也不变
+     * @param chinese 汉字串
+     * @param out 输出
+     * @return out
+     */
+    public static StringBuilder appendFullSpell(CharSequence chinese, StringBuilder out) {
+        PolyphoneDictionary.Compiled words = PolyphoneDictionary.getDefault().compiled();
+        for (int i = 0, end = chinese.length(); i < end; i++) {
+            int word = words.match(chinese, i, end);
+            if (word >= 0) {
+                int length = words.length(word);
+                for (int j = 0; j < length; j++) {
+                    out.append(words.withColon(word, j));
                 }
+                i += length - 1;
+                continue;
+            }
+            char c = chinese.charAt(i);
+            String pinyin = c > 128 ? fullSpell(c) : null;
+            if (pinyin != null) {
+                out.append(pinyin);
             } else {
-                pybf.append(arr[i]);
+                out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * 获取汉字串拼音(ü写作u:)追加到out，英文字符不变，没有读音的字符也不变
+     * @param chinese 汉字串
+     * @param out 输出
+     * @return out
+     * @throws IOException 写入out失败
+     */
+    public static <A extends Appendable> A appendFullSpell(CharSequence chinese, A out) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendFullSpell(chinese, (StringBuilder) out);
+            return out;
+        }
+        StringBuilder buffer = buffer();
+        try {
+            out.append(appendFullSpell(chinese, buffer));
+        } finally {
+            recycle(buffer);
+        }
+        return out;
+    }
+
+    /**
+     * 获取每个字符的读音(ü写作v)，多音字按词典匹配，供PinyinIndex使用
+     *
+     * @param text 字符串
+     * @return 与字符一一对应的读音，没有读音的字符(包括非中文字符)为null
+     */
+    static String[] syllables(CharSequence text) {
+        String[] syllables = new String[text.length()];
+        PolyphoneDictionary.Compiled words = PolyphoneDictionary.getDefault().compiled();
+        for (int i = 0, end = text.length(); i < end; i++) {
+            int word = words.match(text, i, end);
+            if (word >= 0) {
+                int length = words.length(word);
+                for (int j = 0; j < length; j++) {
+                    syllables[i + j] = words.withV(word, j);
+                }
+                i += length - 1;
+                continue;
+            }
+            char c = text.charAt(i);
+            if (PinyinTable.covers(c)) {
+                syllables[i] = PinyinTable.withV(c);
+            } else if (c > 128) {
+                syllables[i] = PinyinTable.lookup(c, PinyinTable.WITH_V_FORMAT);
             }
         }
-        return pybf.toString();
+        return syllables;
+    }
+
+    /**
+     * 获取拼音(ü写作u:)
+     * @param c 字符
+     * @return 拼音，没有读音时返回null
+     */
+    private static String fullSpell(char c) {
+        return PinyinTable.covers(c) ? PinyinTable.withColon(c) : PinyinTable.lookup(c, PinyinTable.DEFAULT_FORMAT);
+    }
+
+    /**
+     * 获取拼音首字母
+     * @param c 字符
+     * @return 首字母，没有读音时返回0
+     */
+    private static char firstLetter(char c) {
+        if (PinyinTable.covers(c)) {
+            return PinyinTable.firstLetter(c);
+        }
+        String pinyin = PinyinTable.lookup(c, PinyinTable.DEFAULT_FORMAT);
+        return pinyin == null || pinyin.isEmpty() ? 0 : pinyin.charAt(0);
+    }
+
+    /**
+     * 与正则\w相同：字母、数字、下划线
+     */
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * 获取当前线程复用的StringBuilder(已清空)
+     */
+    private static StringBuilder buffer() {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    /**
+     * 取出结果并归还StringBuilder，容量过大时丢弃
+     */
+    private static String release(StringBuilder buffer) {
+        String result = buffer.toString();
+        recycle(buffer);
+        return result;
+    }
+
+    /**
+     * 归还StringBuilder(不生成字符串)，容量过大时丢弃
+     */
+    private static void recycle(StringBuilder buffer) {
+        if (buffer.capacity() > MAX_BUFFER_CAPACITY) {
+            BUFFER.remove();
+        } else {
+            buffer.setLength(0);
+        }
     }
 }
@@ -0,0 +1,565 @@
+package com.liujun.pinyin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * 拼音搜索索引<br/>
+ * 添加(文本, 数据)时计算一次每个字的读音(多音字按PolyphoneDictionary匹配)，按(字, 读音)建立字典树；
+ * 查询时每个字可以用汉字本身、完整拼音或拼音的任意前缀匹配，如"bj"、"beijing"、"bjing"、"北j"都能找到"北京"，按前缀匹配<br/>
+ * 只有字母、数字和汉字参与匹配，字母不区分大小写，查询中的空白被忽略<br/>
+ * 结果按权重从大到小、文本从短到长、添加顺序排列；子树数据超过cacheSize时节点缓存子树的前cacheSize个数据，limit不超过cacheSize的查询不需要遍历子树<br/>
+ * 线程安全，查询之间不互相阻塞，添加、删除时阻塞查询
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class PinyinIndex<T> {
+
+    /**
+     * 默认每个节点缓存的结果数量
+     */
+    public static final int DEFAULT_CACHE_SIZE = 16;
+
+    private static final Comparator<Entry<?>> ORDER = (a, b) -> {
+        if (a.weight != b.weight) {
+            return a.weight > b.weight ? -1 : 1;
+        }
+        if (a.text.length() != b.text.length()) {
+            return a.text.length() < b.text.length() ? -1 : 1;
+        }
+        return Long.compare(a.sequence, b.sequence);
+    };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int cacheSize;
+
+    private final Node<T> root = new Node<>(null, (char) 0, null);
+
+    private long sequence;
+
+    public PinyinIndex() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize 每个节点缓存的结果数量，必须大于0
+     */
+    public PinyinIndex(int cacheSize) {
+        if (cacheSize <= 0) {
+            throw new IllegalArgumentException("cacheSize必须大于0: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * 添加数据，权重为0
+     *
+     * @param text    文本
+     * @param payload 数据
+     */
+    public void add(String text, T payload) {
+        add(text, payload, 0);
+    }
+
+    /**
+     * 添加数据，同一文本可以添加多个数据
+     *
+     * @param text    文本
+     * @param payload 数据
+     * @param weight  权重，越大越靠前
+     */
+    public void add(String text, T payload, int weight) {
+        Objects.requireNonNull(text, "text");
+        Key key = key(text);
+        lock.writeLock().lock();
+        try {
+            insert(key, text, payload, weight);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 批量添加数据，权重为0，读音在加锁前计算
+     *
+     * @param payloads     数据
+     * @param textFunction 获取数据的文本
+     */
+    public void addAll(Collection<? extends T> payloads, Function<? super T, String> textFunction) {
+        List<T> values = new ArrayList<>(payloads);
+        List<String> texts = new ArrayList<>(values.size());
+        List<Key> keys = new ArrayList<>(values.size());
+        for (T payload : values) {
+            String text = Objects.requireNonNull(textFunction.apply(payload), "text");
+            texts.add(text);
+            keys.add(key(text));
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                insert(keys.get(i), texts.get(i), values.get(i), 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除数据
+     *
+     * @param text    添加时的文本
+     * @param payload 数据(按equals比较)
+     * @return 是否删除
+     */
+    public boolean remove(String text, T payload) {
+        Key key = key(text);
+        lock.writeLock().lock();
+        try {
+            Node<T> node = root;
+            for (int i = 0; i < key.chars.length && node != null; i++) {
+                node = node.child(key.chars[i], key.syllables[i]);
+            }
+            Entry<T> entry = node == null ? null : node.removeEntry(text, payload);
+            if (entry == null) {
+                return false;
+            }
+            for (Node<T> current = node; current != null; current = current.parent) {
+                current.subtreeSize--;
+                if (current.top != null) {
+                    if (current.subtreeSize <= cacheSize) {
+                        current.top = null;
+                    } else if (current.topContains(entry)) {
+                        current.top = current.collectTop(cacheSize);
+                    }
+                }
+            }
+            //删除没有数据的节点
+            for (Node<T> current = node; current != root && current.subtreeSize == 0; current = current.parent) {
+                current.parent.removeChild(current);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children = null;
+            root.childCount = 0;
+            root.entries = null;
+            root.entryCount = 0;
+            root.subtreeSize = 0;
+            root.top = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 数据数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return root.subtreeSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按前缀查询
+     *
+     * @param query 汉字、拼音、拼音首字母或混合输入
+     * @param limit 最多返回的数量
+     * @return 数据，按权重从大到小、文本从短到长、添加顺序排列
+     */
+    public List<T> search(String query, int limit) {
+        char[] chars = normalize(query);
+        if (chars.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            if (root.subtreeSize == 0) {
+                return Collections.emptyList();
+            }
+            TopK<T> best = new TopK<>(Math.min(limit, root.subtreeSize));
+            for (Node<T> node : match(chars)) {
+                if (node.top != null && limit <= cacheSize) {
+                    //缓存已排序，遇到放不进结果的数据后，之后的数据也放不进
+                    for (Entry<T> entry : node.top) {
+                        if (!best.offer(entry)) {
+                            break;
+                        }
+                    }
+                } else {
+                    node.collect(best);
+                }
+            }
+            List<T> result = new ArrayList<>(best.count);
+            for (int i = 0; i < best.count; i++) {
+                result.add(best.entries[i].payload);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PinyinIndex{size=" + size() + ", cacheSize=" + cacheSize + "}";
+    }
+
+    private void insert(Key key, String text, T payload, int weight) {
+        Node<T> node = root;
+        for (int i = 0; i < key.chars.length; i++) {
+            node = node.getOrAddChild(key.chars[i], key.syllables[i]);
+        }
+        Entry<T> entry = new Entry<>(text, payload, weight, sequence++);
+        node.addEntry(entry);
+        for (Node<T> current = node; current != null; current = current.parent) {
+            current.subtreeSize++;
+            if (current.top != null) {
+                current.offerTop(entry);
+            } else if (current.subtreeSize > cacheSize) {
+                current.top = current.collectTop(cacheSize);
+            }
+        }
+    }
+
+    /**
+     * 查找查询串匹配结束的节点，返回的节点之间没有祖先关系
+     */
+    private List<Node<T>> match(char[] query) {
+        Map<Node<T>, Boolean> ends = new IdentityHashMap<>();
+        Deque<Node<T>> nodes = new ArrayDeque<>();
+        Deque<Integer> positions = new ArrayDeque<>();
+        nodes.push(root);
+        positions.push(0);
+        while (!nodes.isEmpty()) {
+            Node<T> node = nodes.pop();
+            int position = positions.pop();
+            if (position == query.length) {
+                ends.put(node, Boolean.TRUE);
+                continue;
+            }
+            char c = query[position];
+            for (int i = 0; i < node.childCount; i++) {
+                Node<T> child = node.children[i];
+                String syllable = child.syllable;
+                if (child.ch == c || (syllable == null && Character.toLowerCase(child.ch) == c)) {
+                    nodes.push(child);
+                    positions.push(position + 1);
+                    continue;
+                }
+                //拼音的任意非空前缀
+                for (int k = 0; syllable != null && k < syllable.length() && position + k < query.length
+                        && syllable.charAt(k) == query[position + k]; k++) {
+                    nodes.push(child);
+                    positions.push(position + k + 1);
+                }
+            }
+        }
+        List<Node<T>> result = new ArrayList<>(ends.size());
+        for (Node<T> node : ends.keySet()) {
+            boolean nested = false;
+            for (Node<T> parent = node.parent; parent != null && !nested; parent = parent.parent) {
+                nested = ends.containsKey(parent);
+            }
+            if (!nested) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询串转小写，忽略空白，ü写作v
+     */
+    private static char[] normalize(String query) {
+        if (query == null) {
+            return new char[0];
+        }
+        StringBuilder builder = new StringBuilder(query.length());
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (c == '\u00FC' || c == '\u00DC') {
+                builder.append('v');
+            } else if (!Character.isWhitespace(c)) {
+                builder.append(Character.toLowerCase(c));
+            }
+        }
+        return builder.toString().toCharArray();
+    }
+
+    /**
+     * 计算文本的字典树路径：只保留字母、数字、汉字，汉字带读音
+     */
+    private static Key key(String text) {
+        String[] syllables = PinYinUtil.syllables(text);
+        int count = 0;
+        char[] chars = new char[text.length()];
+        String[] keySyllables = new String[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                chars[count] = c;
+                keySyllables[count] = syllables[i];
+                count++;
+            }
+        }
+        return new Key(Arrays.copyOf(chars, count), Arrays.copyOf(keySyllables, count));
+    }
+
+    private static final class Key {
+        private final char[] chars;
+        private final String[] syllables;
+
+        private Key(char[] chars, String[] syllables) {
+            this.chars = chars;
+            this.syllables = syllables;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final String text;
+        private final T payload;
+        private final int weight;
+        private final long sequence;
+
+        private Entry(String text, T payload, int weight, long sequence) {
+            this.text = text;
+            this.payload = payload;
+            this.weight = weight;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * 按ORDER保留最前的若干个数据
+     */
+    private static final class TopK<T> {
+        private final Entry<T>[] entries;
+        private int count;
+
+        private TopK(int limit) {
+            @SuppressWarnings("unchecked")
+            Entry<T>[] array = (Entry<T>[]) new Entry<?>[limit];
+            entries = array;
+        }
+
+        /**
+         * @return 是否放入，已满且不比最后一个靠前时返回false
+         */
+        private boolean offer(Entry<T> entry) {
+            if (count < entries.length) {
+                count++;
+            }
+            return insert(entries, count, entry);
+        }
+
+        /**
+         * 在已排序的entries[0..count)中插入entry，挤出最后一个
+         *
+         * @return 是否插入
+         */
+        private static <T> boolean insert(Entry<T>[] entries, int count, Entry<T> entry) {
+            int last = count - 1;
+            if (entries[last] != null && ORDER.compare(entry, entries[last]) >= 0) {
+                return false;
+            }
+            int index = last;
+            while (index > 0 && ORDER.compare(entry, entries[index - 1]) < 0) {
+                index--;
+            }
+            System.arraycopy(entries, index, entries, index + 1, last - index);
+            entries[index] = entry;
+            return true;
+        }
+    }
+
+    /**
+     * 字典树节点，子节点按字符排序，同一字符不同读音是不同的子节点
+     */
+    private static final class Node<T> {
+        private final Node<T> parent;
+        private final char ch;
+        /**
+         * 读音(ü写作v)，没有读音时为null
+         */
+        private final String syllable;
+        private Node<T>[] children;
+        private int childCount;
+        private Entry<T>[] entries;
+        private int entryCount;
+        /**
+         * 子树中的数据数量
+         */
+        private int subtreeSize;
+        /**
+         * 子树中排在最前的数据，子树数据不超过cacheSize时为null
+         */
+        private Entry<T>[] top;
+
+        private Node(Node<T> parent, char ch, String syllable) {
+            this.parent = parent;
+            this.ch = ch;
+            this.syllable = syllable;
+        }
+
+        /**
+         * 二分查找第一个字符为ch的子节点位置
+         */
+        private int firstChild(char ch) {
+            int low = 0;
+            int high = childCount;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (children[middle].ch < ch) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private Node<T> child(char ch, String syllable) {
+            for (int i = firstChild(ch); i < childCount && children[i].ch == ch; i++) {
+                if (Objects.equals(children[i].syllable, syllable)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node<T> getOrAddChild(char ch, String syllable) {
+            Node<T> child = child(ch, syllable);
+            if (child != null) {
+                return child;
+            }
+            child = new Node<>(this, ch, syllable);
+            if (children == null) {
+                @SuppressWarnings("unchecked")
+                Node<T>[] array = (Node<T>[]) new Node<?>[2];
+                children = array;
+            } else if (childCount == children.length) {
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            int index = firstChild(ch);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(Node<T> child) {
+            for (int i = firstChild(child.ch); i < childCount; i++) {
+                if (children[i] == child) {
+                    System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+                    children[--childCount] = null;
+                    return;
+                }
+            }
+        }
+
+        private void addEntry(Entry<T> entry) {
+            if (entries == null) {
+                @SuppressWarnings("unchecked")
+                Entry<T>[] array = (Entry<T>[]) new Entry<?>[1];
+                entries = array;
+            } else if (entryCount == entries.length) {
+                entries = Arrays.copyOf(entries, entryCount * 2);
+            }
+            entries[entryCount++] = entry;
+        }
+
+        private Entry<T> removeEntry(String text, T payload) {
+            for (int i = 0; i < entryCount; i++) {
+                Entry<T> entry = entries[i];
+                if (entry.text.equals(text) && Objects.equals(entry.payload, payload)) {
+                    System.arraycopy(entries, i + 1, entries, i, entryCount - i - 1);
+                    entries[--entryCount] = null;
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        private boolean topContains(Entry<T> entry) {
+            for (Entry<T> e : top) {
+                if (e == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 新数据排在缓存中最后一个之前时放入缓存，挤出最后一个
+         */
+        private void offerTop(Entry<T> entry) {
+            TopK.insert(top, top.length, entry);
+        }
+
+        /**
+         * 由本节点数据及子节点的缓存(没有缓存时遍历子节点)计算子树中排在最前的count个数据
+         */
+        private Entry<T>[] collectTop(int count) {
+            TopK<T> best = new TopK<>(count);
+            for (int i = 0; i < entryCount; i++) {
+                best.offer(entries[i]);
+            }
+            for (int i = 0; i < childCount; i++) {
+                Node<T> child = children[i];
+                if (child.top != null) {
+                    for (Entry<T> entry : child.top) {
+                        if (!best.offer(entry)) {
+                            break;
+                        }
+                    }
+                } else {
+                    child.collect(best);
+                }
+            }
+            return Arrays.copyOf(best.entries, best.count);
+        }
+
+        /**
+         * 把子树中的全部数据放入result
+         */
+        private void collect(TopK<T> result) {
+            Deque<Node<T>> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                Node<T> node = stack.pop();
+                for (int i = 0; i < node.entryCount; i++) {
+                    result.offer(node.entries[i]);
+                }
+                for (int i = 0; i < node.childCount; i++) {
+                    stack.push(node.children[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.liujun.pinyin;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 汉字拼音表<br/>
+ * 第一次使用时通过pinyin4j生成U+4E00-U+9FA5每个汉字的第一个读音(不带声调)，之后只读<br/>
+ * 每个汉字只存一个short下标，指向约400个音节的音节池，转换时为数组查找；
+ * 音节池中每个音节同时保存ü写作v和写作u:两种形式以及首字母
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class PinyinTable {
+
+    /**
+     * 表中第一个汉字
+     */
+    static final char START = '\u4E00';
+
+    /**
+     * 表中最后一个汉字
+     */
+    static final char END = '\u9FA5';
+
+    /**
+     * 小写、不带声调、ü写作v
+     */
+    static final HanyuPinyinOutputFormat WITH_V_FORMAT = format(HanyuPinyinVCharType.WITH_V);
+
+    /**
+     * 小写、不带声调、ü写作u:(pinyin4j默认)
+     */
+    static final HanyuPinyinOutputFormat DEFAULT_FORMAT = format(HanyuPinyinVCharType.WITH_U_AND_COLON);
+
+    /**
+     * 汉字-START -> 音节下标，-1表示没有读音
+     */
+    private static final short[] SYLLABLE_INDEXES = new short[END - START + 1];
+
+    /**
+     * 音节，ü写作v
+     */
+    private static final String[] SYLLABLES_WITH_V;
+
+    /**
+     * 音节，ü写作u:
+     */
+    private static final String[] SYLLABLES_WITH_COLON;
+
+    /**
+     * 音节首字母
+     */
+    private static final char[] FIRST_LETTERS;
+
+    static {
+        List<String> syllables = new ArrayList<>();
+        Map<String, Short> syllableIndexes = new HashMap<>();
+        for (char c = START; c <= END; c++) {
+            String syllable = lookup(c, WITH_V_FORMAT);
+            if (syllable == null || syllable.isEmpty()) {
+                SYLLABLE_INDEXES[c - START] = -1;
+                continue;
+            }
+            Short index = syllableIndexes.get(syllable);
+            if (index == null) {
+                index = (short) syllables.size();
+                syllableIndexes.put(syllable, index);
+                syllables.add(syllable.intern());
+            }
+            SYLLABLE_INDEXES[c - START] = index;
+        }
+        SYLLABLES_WITH_V = syllables.toArray(new String[0]);
+        SYLLABLES_WITH_COLON = new String[SYLLABLES_WITH_V.length];
+        FIRST_LETTERS = new char[SYLLABLES_WITH_V.length];
+        for (int i = 0; i < SYLLABLES_WITH_V.length; i++) {
+            //拼音中只有ü会写作v
+            SYLLABLES_WITH_COLON[i] = SYLLABLES_WITH_V[i].replace("v", "u:").intern();
+            FIRST_LETTERS[i] = SYLLABLES_WITH_V[i].charAt(0);
+        }
+    }
+
+    private PinyinTable() {
+    }
+
+    private static HanyuPinyinOutputFormat format(HanyuPinyinVCharType vCharType) {
+        HanyuPinyinOutputFormat format = new HanyuPinyinOutputFormat();
+        format.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        format.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        format.setVCharType(vCharType);
+        return format;
+    }
+
+    /**
+     * 通过pinyin4j获取第一个读音，用于生成表及表外字符
+     *
+     * @param c      字符
+     * @param format 格式
+     * @return 读音，没有读音时返回null
+     */
+    static String lookup(char c, HanyuPinyinOutputFormat format) {
+        try {
+            String[] pinyins = PinyinHelper.toHanyuPinyinStringArray(c, format);
+            return pinyins == null || pinyins.length == 0 ? null : pinyins[0];
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * @param c 字符
+     * @return 是否在表的范围内
+     */
+    static boolean covers(char c) {
+        return c >= START && c <= END;
+    }
+
+    /**
+     * 获取音节下标
+     *
+     * @param c 表范围内的字符
+     * @return 音节下标，没有读音时返回-1
+     */
+    static int syllableIndex(char c) {
+        return SYLLABLE_INDEXES[c - START];
+    }
+
+    /**
+     * 获取拼音，ü写作v
+     *
+     * @param c 表范围内的字符
+     * @return 拼音，没有读音时返回null
+     */
+    static String withV(char c) {
+        int index = SYLLABLE_INDEXES[c - START];
+        return index < 0 ? null : SYLLABLES_WITH_V[index];
+    }
+
+    /**
+     * 获取拼音，ü写作u:
+     *
+     * @param c 表范围内的字符
+     * @return 拼音，没有读音时返回null
+     */
+    static String withColon(char c) {
+        int index = SYLLABLE_INDEXES[c - START];
+        return index < 0 ? null : SYLLABLES_WITH_COLON[index];
+    }
+
+    /**
+     * 获取拼音首字母
+     *
+     * @param c 表范围内的字符
+     * @return 首字母，没有读音时返回0
+     */
+    static char firstLetter(char c) {
+        int index = SYLLABLE_INDEXES[c - START];
+        return index < 0 ? 0 : FIRST_LETTERS[index];
+    }
+
+    /**
+     * @return 音节池大小
+     */
+    static int syllableCount() {
+        return SYLLABLES_WITH_V.length;
+    }
+}
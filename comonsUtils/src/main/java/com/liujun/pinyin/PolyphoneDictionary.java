@@ -0,0 +1,304 @@
+package com.liujun.pinyin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 多音字词典<br/>
+ * 为多字词指定每个字的读音，PinYinUtil按正向最大匹配使用词典中的读音，不在词典中的字取第一个读音<br/>
+ * 词典编译为双数组字典树，查询不创建对象；添加、删除词只修改词表，下一次查询时重新编译并替换(写时复制)，
+ * 连续添加N个词只编译一次，不阻塞正在进行的转换<br/>
+ * 默认词典第一次使用时从classpath的pinyin/polyphone.txt加载，每行格式为"词 读音1 读音2 ..."，ü写作v，#开头为注释
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public final class PolyphoneDictionary {
+
+    /**
+     * 默认词典资源
+     */
+    public static final String DEFAULT_RESOURCE = "/pinyin/polyphone.txt";
+
+    /**
+     * 全部词及读音(ü写作v)，修改时加锁
+     */
+    private final TreeMap<String, String[]> words = new TreeMap<>();
+
+    /**
+     * 编译结果，词表修改后为null，下一次查询时重新编译
+     */
+    private volatile Compiled compiled = Compiled.EMPTY;
+
+    public PolyphoneDictionary() {
+    }
+
+    /**
+     * 获取默认词典，PinYinUtil使用该词典
+     *
+     * @return 默认词典
+     */
+    public static PolyphoneDictionary getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 从词典文本加载
+     *
+     * @param reader 词典文本
+     * @return 词典
+     * @throws IOException 读取失败
+     */
+    public static PolyphoneDictionary load(Reader reader) throws IOException {
+        PolyphoneDictionary dictionary = new PolyphoneDictionary();
+        dictionary.addWords(reader);
+        return dictionary;
+    }
+
+    /**
+     * 添加或替换一个词，下一次查询时重新编译
+     *
+     * @param word      词
+     * @param syllables 每个字的读音，不带声调，ü写作v或u:
+     */
+    public synchronized void addWord(String word, String... syllables) {
+        words.put(word, normalize(word, syllables));
+        compiled = null;
+    }
+
+    /**
+     * 批量添加或替换词，全部读取后只编译一次
+     *
+     * @param reader 词典文本，每行格式为"词 读音1 读音2 ..."
+     * @throws IOException 读取失败
+     */
+    public void addWords(Reader reader) throws IOException {
+        Map<String, String[]> entries = new HashMap<>();
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                entries.put(parts[0], normalize(parts[0], Arrays.copyOfRange(parts, 1, parts.length)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("词典第" + lineNumber + "行格式错误: " + line, e);
+            }
+        }
+        synchronized (this) {
+            words.putAll(entries);
+            compiled = null;
+        }
+    }
+
+    /**
+     * 删除一个词
+     *
+     * @param word 词
+     * @return 词是否存在
+     */
+    public synchronized boolean removeWord(String word) {
+        if (words.remove(word) == null) {
+            return false;
+        }
+        compiled = null;
+        return true;
+    }
+
+    /**
+     * 获取词的读音
+     *
+     * @param word 词
+     * @return 每个字的读音(ü写作v)，不在词典中时返回null
+     */
+    public String[] getReading(String word) {
+        Compiled current = compiled();
+        int index = current.trie.get(word);
+        if (index < 0) {
+            return null;
+        }
+        String[] syllables = new String[current.length(index)];
+        for (int i = 0; i < syllables.length; i++) {
+            syllables[i] = current.withV(index, i);
+        }
+        return syllables;
+    }
+
+    /**
+     * @return 词数量
+     */
+    public synchronized int size() {
+        return words.size();
+    }
+
+    /**
+     * 获取当前编译结果，词表修改后第一次获取时重新编译；一次转换只读取一次，转换过程中添加的词从下一次转换开始生效
+     */
+    Compiled compiled() {
+        Compiled current = compiled;
+        return current != null ? current : compile();
+    }
+
+    private synchronized Compiled compile() {
+        Compiled current = compiled;
+        if (current == null) {
+            current = new Compiled(words);
+            compiled = current;
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "PolyphoneDictionary{size=" + size() + "}";
+    }
+
+    private static String[] normalize(String word, String[] syllables) {
+        if (word == null || word.isEmpty()) {
+            throw new IllegalArgumentException("词不能为空");
+        }
+        if (syllables.length != word.length()) {
+            throw new IllegalArgumentException("读音数量与字数不一致: " + word + " " + Arrays.toString(syllables));
+        }
+        String[] result = new String[syllables.length];
+        for (int i = 0; i < syllables.length; i++) {
+            String syllable = syllables[i].trim().toLowerCase().replace("u:", "v").replace('\u00FC', 'v');
+            if (syllable.isEmpty()) {
+                throw new IllegalArgumentException("读音不能为空: " + word);
+            }
+            for (int j = 0; j < syllable.length(); j++) {
+                char c = syllable.charAt(j);
+                if (c < 'a' || c > 'z') {
+                    throw new IllegalArgumentException("读音只能包含字母(不带声调): " + syllables[i]);
+                }
+            }
+            result[i] = syllable;
+        }
+        return result;
+    }
+
+    /**
+     * 编译后的词典，不可修改<br/>
+     * 词i的读音为syllables[offsets[i]..offsets[i+1])，读音以音节池下标保存
+     */
+    static final class Compiled {
+
+        static final Compiled EMPTY = new Compiled(new TreeMap<>());
+
+        private final DoubleArrayTrie trie;
+
+        private final int[] offsets;
+
+        private final short[] syllables;
+
+        private final String[] syllablesWithV;
+
+        private final String[] syllablesWithColon;
+
+        private Compiled(TreeMap<String, String[]> words) {
+            List<String> keys = new ArrayList<>(words.keySet());
+            trie = new DoubleArrayTrie(keys);
+            offsets = new int[keys.size() + 1];
+            int total = 0;
+            for (String[] reading : words.values()) {
+                total += reading.length;
+            }
+            syllables = new short[total];
+            List<String> pool = new ArrayList<>();
+            Map<String, Short> poolIndexes = new HashMap<>();
+            int position = 0;
+            int index = 0;
+            for (String[] reading : words.values()) {
+                offsets[index++] = position;
+                for (String syllable : reading) {
+                    Short poolIndex = poolIndexes.get(syllable);
+                    if (poolIndex == null) {
+                        poolIndex = (short) pool.size();
+                        poolIndexes.put(syllable, poolIndex);
+                        pool.add(syllable.intern());
+                    }
+                    syllables[position++] = poolIndex;
+                }
+            }
+            offsets[index] = position;
+            syllablesWithV = pool.toArray(new String[0]);
+            syllablesWithColon = new String[syllablesWithV.length];
+            for (int i = 0; i < syllablesWithV.length; i++) {
+                syllablesWithColon[i] = syllablesWithV[i].replace("v", "u:").intern();
+            }
+        }
+
+        /**
+         * 从offset开始查找最长的词
+         *
+         * @return 词下标，没有匹配时返回-1
+         */
+        int match(CharSequence text, int offset, int end) {
+            return trie.longestMatch(text, offset, end);
+        }
+
+        /**
+         * @return 词的字数
+         */
+        int length(int word) {
+            return offsets[word + 1] - offsets[word];
+        }
+
+        /**
+         * @return 词中第i个字的读音，ü写作v
+         */
+        String withV(int word, int i) {
+            return syllablesWithV[syllables[offsets[word] + i]];
+        }
+
+        /**
+         * @return 词中第i个字的读音，ü写作u:
+         */
+        String withColon(int word, int i) {
+            return syllablesWithColon[syllables[offsets[word] + i]];
+        }
+
+        /**
+         * @return 词中第i个字读音的首字母
+         */
+        char firstLetter(int word, int i) {
+            return syllablesWithV[syllables[offsets[word] + i]].charAt(0);
+        }
+
+        int size() {
+            return offsets.length - 1;
+        }
+    }
+
+    private static final class DefaultHolder {
+
+        private static final PolyphoneDictionary INSTANCE = loadDefault();
+
+        private static PolyphoneDictionary loadDefault() {
+            InputStream in = PolyphoneDictionary.class.getResourceAsStream(DEFAULT_RESOURCE);
+            if (in == null) {
+                throw new IllegalStateException("找不到多音字词典: " + DEFAULT_RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return load(reader);
+            } catch (IOException e) {
+                throw new IllegalStateException("读取多音字词典失败: " + DEFAULT_RESOURCE, e);
+            }
+        }
+    }
+}
@@ -3,13 +3,32 @@ package com.liujun.test;
 import com.liujun.bean.PersonA;
 import com.liujun.bean.PersonB;
 import com.liujun.bean.PersonBeanFactory;
+import com.liujun.utils.BeanCopier;
 import com.liujun.utils.BeanFieldsUtils;
+import com.liujun.utils.BeanMapper;
+import com.liujun.utils.ConverterRegistry;
+import com.liujun.utils.DateFormatUtils;
+import com.liujun.utils.FieldMappingPlanCache;
+import com.liujun.utils.NumberParseUtils;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static com.liujun.bean.PersonBeanFactory.personA;
 
@@ -270,4 +289,612 @@ public class BeanFieldsTest {
         log(personBMapList, personBList);
     }
 
+    @Test
+    public void planCache() {
+        FieldMappingPlanCache planCache = BeanFieldsUtils.getPlanCache();
+        planCache.invalidate(PersonA.class);
+        long hitCount = planCache.getHitCount();
+        long missCount = planCache.getMissCount();
+
+        PersonA personA = personA();
+        PersonB emptyPersonB = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA, emptyPersonB);
+        emptyPersonB = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA, emptyPersonB);
+        log(personA, emptyPersonB);
+        Assert.assertEquals(missCount + 1, planCache.getMissCount());
+        Assert.assertEquals(hitCount + 1, planCache.getHitCount());
+        Assert.assertEquals(1800, emptyPersonB.getAge());
+
+        planCache.invalidate(PersonB.class);
+        BeanFieldsUtils.copyPropertyToProperty(personA, new PersonB());
+        Assert.assertEquals(missCount + 2, planCache.getMissCount());
+        System.out.println(planCache);
+    }
+
+    /**
+     * 属性名处理器中嵌套复制其他对象、处理器抛出异常时，当前线程的查询key不能被错误复用
+     */
+    private static final BeanFieldsUtils.FieldNameCompareHandler NESTED_COPY_HANDLER = (sourceFieldName, targetFieldName) -> {
+        PersonA nested = new PersonA();
+        BeanFieldsUtils.copyPropertyToProperty(PersonBeanFactory.personB(), nested);
+        return sourceFieldName.equals(targetFieldName);
+    };
+
+    private static final BeanFieldsUtils.FieldNameCompareHandler FAILING_HANDLER = (sourceFieldName, targetFieldName) -> {
+        throw new IllegalStateException("handler failed");
+    };
+
+    @Test
+    public void nestedCopyInHandler() {
+        BeanFieldsUtils.getPlanCache().invalidateAll();
+        PersonB outer = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA(), outer, false, null, null, null, false, NESTED_COPY_HANDLER);
+        PersonB expected = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA(), expected);
+        Assert.assertEquals(expected.toString(), outer.toString());
+        //嵌套复制的对象对不能拿到外层的计划
+        PersonA nested = new PersonA();
+        BeanFieldsUtils.copyPropertyToProperty(PersonBeanFactory.personB(), nested);
+        PersonA nestedExpected = new PersonA();
+        BeanFieldsUtils.copyPropertyToProperty(PersonBeanFactory.personB(), nestedExpected, false, null, null, null, false, (s, t) -> s.equals(t));
+        Assert.assertEquals(nestedExpected.toString(), nested.toString());
+        Assert.assertEquals(4, BeanFieldsUtils.getPlanCache().size());
+
+        try {
+            BeanFieldsUtils.copyPropertyToProperty(personA(), new PersonB(), false, null, null, null, false, FAILING_HANDLER);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("handler failed", e.getMessage());
+        }
+        PersonB afterFailure = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA(), afterFailure);
+        Assert.assertEquals(expected.toString(), afterFailure.toString());
+    }
+
+    /**
+     * 捕获外部变量的属性名处理器每次调用都不同，不放入缓存
+     */
+    @Test
+    public void capturingHandlerNotCached() {
+        FieldMappingPlanCache planCache = BeanFieldsUtils.getPlanCache();
+        planCache.invalidateAll();
+        for (int i = 0; i < 10; i++) {
+            String ignored = i % 2 == 0 ? "age" : "height";
+            PersonB personB = new PersonB();
+            BeanFieldsUtils.copyPropertyToProperty(personA(), personB, true, null, null, null, false, (s, t) -> !s.equals(ignored) && s.equals(t));
+            if (i % 2 == 0) {
+                Assert.assertEquals(0, personB.getAge());
+                Assert.assertEquals(175, personB.getHeight(), 0);
+            } else {
+                Assert.assertEquals(1800, personB.getAge());
+                Assert.assertEquals(0, personB.getHeight(), 0);
+            }
+        }
+        Assert.assertEquals(0, planCache.size());
+        BeanFieldsUtils.copyPropertyToProperty(personA(), new PersonB(), false, null, null, null, false, (s, t) -> s.equals(t));
+        BeanFieldsUtils.copyPropertyToProperty(personA(), new PersonB(), false, null, null, null, false, (s, t) -> s.equals(t));
+        Assert.assertEquals(2, planCache.size());
+    }
+
+    @Test
+    public void copyEngine() {
+        PersonA personA = personA();
+        PersonB reflectPersonB = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA, reflectPersonB, BeanFieldsUtils.CopyEngine.REFLECT);
+        PersonB lambdaPersonB = new PersonB();
+        BeanFieldsUtils.copyPropertyToProperty(personA, lambdaPersonB, BeanFieldsUtils.CopyEngine.LAMBDA);
+        log(reflectPersonB, lambdaPersonB);
+        Assert.assertEquals(reflectPersonB.toString(), lambdaPersonB.toString());
+
+        PersonB personB = PersonBeanFactory.personB();
+        PersonA lambdaPersonA = new PersonA();
+        BeanFieldsUtils.copyPropertyToProperty(personB, lambdaPersonA, BeanFieldsUtils.CopyEngine.LAMBDA);
+        log(personB, lambdaPersonA);
+        Assert.assertEquals("18", lambdaPersonA.getAge());
+    }
+
+    @Test
+    public void copyEngineSameResult() {
+        List<Object> sources = new ArrayList<>();
+        sources.add(personA());
+        sources.add(PersonBeanFactory.personB());
+        List<String> ignoreTargetFields = new ArrayList<String>() {{
+            add("weight");
+        }};
+        Map<String, String> sourceToTargetFieldsMap = new HashMap<String, String>() {{
+            put("age", "height");
+        }};
+        for (Object source : sources) {
+            for (Supplier<?> targetFactory : Arrays.<Supplier<?>>asList(PersonA::new, PersonB::new)) {
+                Object reflectTarget = targetFactory.get();
+                Object lambdaTarget = targetFactory.get();
+                BeanFieldsUtils.copyPropertyToProperty(source, reflectTarget, BeanFieldsUtils.CopyEngine.REFLECT);
+                BeanFieldsUtils.copyPropertyToProperty(source, lambdaTarget, BeanFieldsUtils.CopyEngine.LAMBDA);
+                Assert.assertEquals(reflectTarget.toString(), lambdaTarget.toString());
+
+                reflectTarget = targetFactory.get();
+                lambdaTarget = targetFactory.get();
+                BeanFieldsUtils.copyPropertyToProperty(source, reflectTarget, false, null, ignoreTargetFields, sourceToTargetFieldsMap, false, null, BeanFieldsUtils.CopyEngine.REFLECT);
+                BeanFieldsUtils.copyPropertyToProperty(source, lambdaTarget, false, null, ignoreTargetFields, sourceToTargetFieldsMap, false, null, BeanFieldsUtils.CopyEngine.LAMBDA);
+                log(reflectTarget, lambdaTarget);
+                Assert.assertEquals(reflectTarget.toString(), lambdaTarget.toString());
+            }
+        }
+    }
+
+    @Test
+    public void converterRegistry() {
+        ConverterRegistry registry = new ConverterRegistry();
+        Assert.assertEquals(12, registry.resolve(String.class, int.class).convert("12"));
+        Assert.assertEquals(12L, registry.resolve(Integer.class, Long.class).convert(12));
+        Assert.assertEquals(Boolean.TRUE, registry.resolve(String.class, boolean.class).convert("1.5"));
+        Assert.assertEquals("18", registry.resolve(int.class, String.class).convert(18));
+        Assert.assertEquals(18, registry.resolve(Object.class, Integer.class).convert("18"));
+        Assert.assertNull(registry.resolve(String.class, PersonB.class).convert("18"));
+
+        registry.register(String.class, PersonB.class, source -> new PersonB(source, 0, null, 0, null));
+        Assert.assertEquals("迪迦", registry.convert("迪迦", PersonB.class).getName());
+
+        //按运行时类型转换的转换器在注册新转换器后使用新的结果
+        ConverterRegistry.Converter<Object, Object> dynamic = registry.resolve(Object.class, Long.class);
+        Assert.assertNull(dynamic.convert(new UUID(7, 8)));
+        registry.register(UUID.class, Long.class, UUID::getLeastSignificantBits);
+        Assert.assertEquals(Long.valueOf(8), dynamic.convert(new UUID(7, 8)));
+        Assert.assertEquals(Long.valueOf(8), registry.convert(new UUID(7, 8), Long.class));
+    }
+
+    public static class UuidBean {
+        private UUID id;
+    }
+
+    public static class LongIdBean {
+        private Long id;
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    @Test
+    public void registerConverterExpiresPlans() {
+        UuidBean source = new UuidBean();
+        source.id = new UUID(7, 8);
+        BeanCopier<UuidBean, LongIdBean> copier = BeanCopier.builder(UuidBean.class, LongIdBean.class).build();
+        for (BeanFieldsUtils.CopyEngine copyEngine : BeanFieldsUtils.CopyEngine.values()) {
+            LongIdBean target = new LongIdBean();
+            BeanFieldsUtils.copyPropertyToProperty(source, target, copyEngine);
+            Assert.assertNull(target.getId());
+        }
+        //直接注册到默认注册表，已缓存的计划过期
+        long version = ConverterRegistry.getDefault().getVersion();
+        ConverterRegistry.getDefault().register(UUID.class, Long.class, UUID::getMostSignificantBits);
+        Assert.assertEquals(version + 1, ConverterRegistry.getDefault().getVersion());
+        for (BeanFieldsUtils.CopyEngine copyEngine : BeanFieldsUtils.CopyEngine.values()) {
+            LongIdBean target = new LongIdBean();
+            BeanFieldsUtils.copyPropertyToProperty(source, target, copyEngine);
+            Assert.assertEquals(Long.valueOf(7), target.getId());
+        }
+        //已创建的BeanCopier使用创建时的转换器
+        Assert.assertNull(copier.copy(source).getId());
+        Assert.assertEquals(Long.valueOf(7), BeanCopier.builder(UuidBean.class, LongIdBean.class).build().copy(source).getId());
+    }
+
+    public static class CountText {
+        private String count;
+
+        public String getCount() {
+            return count;
+        }
+
+        public void setCount(String count) {
+            this.count = count;
+        }
+    }
+
+    public static class CountValue {
+        private int count;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void customConverterOverridesPrimitiveParse() {
+        ConverterRegistry.Converter<String, Integer> original = (ConverterRegistry.Converter<String, Integer>) (ConverterRegistry.Converter<?, ?>)
+                ConverterRegistry.getDefault().resolve(String.class, Integer.class);
+        CountText source = new CountText();
+        source.setCount(" 7 ");
+        Map<String, Object> sourceMap = new HashMap<>();
+        sourceMap.put("count", " 7 ");
+        try {
+            BeanFieldsUtils.registerConverter(String.class, int.class, s -> Integer.parseInt(s.trim()));
+            for (BeanFieldsUtils.CopyEngine copyEngine : BeanFieldsUtils.CopyEngine.values()) {
+                CountValue target = new CountValue();
+                BeanFieldsUtils.copyPropertyToProperty(source, target, copyEngine);
+                Assert.assertEquals(7, target.getCount());
+            }
+            CountValue target = new CountValue();
+            BeanFieldsUtils.copyKeyToProperty(sourceMap, target);
+            Assert.assertEquals(7, target.getCount());
+        } finally {
+            BeanFieldsUtils.registerConverter(String.class, Integer.class, original);
+        }
+        //恢复内置转换器后重新直接解析
+        for (BeanFieldsUtils.CopyEngine copyEngine : BeanFieldsUtils.CopyEngine.values()) {
+            try {
+                BeanFieldsUtils.copyPropertyToProperty(source, new CountValue(), copyEngine);
+                Assert.fail();
+            } catch (NumberFormatException e) {
+                Assert.assertTrue(e.getMessage().contains(" 7 "));
+            }
+        }
+    }
+
+    @Test
+    public void primitiveParse() {
+        //只验证结果；不经过装箱的分配情况见BeanFieldsBenchmark.primitiveOnly、BeanFieldsListBenchmark.listKeyToProperty(-prof gc)
+        PersonA personA = personA();
+        //weight为包装类型Long，这里只保留int的age、double的height
+        List<String> primitiveOnly = Arrays.asList("name", "weight");
+        for (BeanFieldsUtils.CopyEngine copyEngine : BeanFieldsUtils.CopyEngine.values()) {
+            PersonB personB = new PersonB();
+            BeanFieldsUtils.copyPropertyToProperty(personA, personB, false, null, primitiveOnly, null, false, null, copyEngine);
+            Assert.assertEquals(1800, personB.getAge());
+            Assert.assertEquals(175, personB.getHeight(), 0);
+            Assert.assertNull(personB.getName());
+            Assert.assertNull(personB.getWeight());
+        }
+
+        //map(string) -> 对象
+        Map<String, String> personAMap = new HashMap<>();
+        personAMap.put("age", "18");
+        personAMap.put("height", "1.75");
+        List<PersonB> personBList = new ArrayList<PersonB>() {
+        };
+        BeanFieldsUtils.copyListKeyToProperty(Arrays.asList(personAMap, personAMap), personBList);
+        Assert.assertEquals(2, personBList.size());
+        for (PersonB personB : personBList) {
+            Assert.assertEquals(18, personB.getAge());
+            Assert.assertEquals(1.75, personB.getHeight(), 0);
+        }
+    }
+
+    @Test
+    public void numberParse() {
+        String[] doubles = {"0", "-0", "175", "1.75", "-1.83", ".5", "5.", "1e3", "1.5E-7", "123456789012345678",
+                "1234567890123456789", "0.1", "9007199254740993", "1e23", " 1.5", "1.5d", "NaN", "-Infinity"};
+        for (String value : doubles) {
+            Assert.assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(NumberParseUtils.parseDouble(value)));
+        }
+        String[] longs = {"0", "-1", "+7", "6000", "9223372036854775807", "-9223372036854775808"};
+        for (String value : longs) {
+            Assert.assertEquals(Long.parseLong(value), NumberParseUtils.parseLong(value));
+        }
+        Assert.assertEquals(Integer.MIN_VALUE, NumberParseUtils.parseInt("-2147483648"));
+        String[] badInts = {"", "-", "2147483648", "1.5", "1a"};
+        for (String value : badInts) {
+            try {
+                NumberParseUtils.parseInt(value);
+                Assert.fail(value);
+            } catch (NumberFormatException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    public static class DateBean {
+        @BeanFieldsUtils.DatePattern("yyyy/MM/dd")
+        private String day;
+        private LocalDateTime birthDate;
+
+        public DateBean() {
+        }
+
+        public DateBean(String day, LocalDateTime birthDate) {
+            this.day = day;
+            this.birthDate = birthDate;
+        }
+    }
+
+    public static class LocalDateBean {
+        private LocalDate day;
+        private String birthDate;
+        @BeanFieldsUtils.DatePattern("yyyy/MM/dd")
+        private LocalDate slashDay;
+    }
+
+    @Test
+    public void dateConvert() throws Exception {
+        Date birth = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(PersonBeanFactory.birthStr);
+        Assert.assertEquals(birth, PersonBeanFactory.birth);
+        Assert.assertEquals(birth, BeanFieldsUtils.parse(PersonBeanFactory.birthStr, Date.class));
+        Assert.assertEquals(PersonBeanFactory.birthStr, BeanFieldsUtils.parse(birth, String.class));
+        Assert.assertEquals(LocalDateTime.of(2000, 1, 1, 1, 2, 3), BeanFieldsUtils.parse(PersonBeanFactory.birthStr, LocalDateTime.class));
+        Assert.assertEquals(LocalDate.of(2000, 1, 1), BeanFieldsUtils.parse(PersonBeanFactory.birthStr, LocalDate.class));
+        Assert.assertEquals(birth.toInstant(), BeanFieldsUtils.parse(PersonBeanFactory.birthStr, Instant.class));
+        Assert.assertEquals("2000-01-01", BeanFieldsUtils.parse(LocalDate.of(2000, 1, 1), String.class));
+        Assert.assertEquals(LocalDate.of(2000, 1, 1), DateFormatUtils.parseLocalDate("2000-01-01", DateFormatUtils.DATE_PATTERN));
+        //yyyy-MM-dd只接受10位，多余内容交给DateTimeFormatter报错
+        for (String text : new String[]{"2024-01-02xxxxxxxxx", "2024-01-02 10:11:12"}) {
+            try {
+                DateFormatUtils.parseLocalDate(text, DateFormatUtils.DATE_PATTERN);
+                Assert.fail(text);
+            } catch (java.time.format.DateTimeParseException e) {
+                System.out.println(e.getMessage());
+            }
+            try {
+                DateFormatUtils.parseLocalDateTime(text, DateFormatUtils.DATE_PATTERN);
+                Assert.fail(text);
+            } catch (java.time.format.DateTimeParseException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        //快速路径不处理的无效日期交给DateTimeFormatter，结果一致
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DateFormatUtils.DEFAULT_PATTERN);
+        Assert.assertEquals(LocalDateTime.parse("2000-02-30 01:02:03", formatter), DateFormatUtils.parseLocalDateTime("2000-02-30 01:02:03", DateFormatUtils.DEFAULT_PATTERN));
+        try {
+            DateFormatUtils.parseLocalDateTime("2000-01-01T01:02:03", DateFormatUtils.DEFAULT_PATTERN);
+            Assert.fail();
+        } catch (java.time.format.DateTimeParseException e) {
+            System.out.println(e.getMessage());
+        }
+
+        //PersonA.birthDate(String) -> PersonB.birthDay(Date)
+        PersonB personB = new PersonB();
+        Map<String, String> birthMap = new HashMap<String, String>() {{
+            put("birthDate", "birthDay");
+        }};
+        for (BeanFieldsUtils.CopyEngine copyEngine : BeanFieldsUtils.CopyEngine.values()) {
+            personB.setBirthDay(null);
+            BeanFieldsUtils.copyPropertyToProperty(personA(), personB, false, null, null, birthMap, false, null, copyEngine);
+            Assert.assertEquals(birth, personB.getBirthDay());
+        }
+        log(personA(), personB);
+
+        //属性上的日期格式
+        LocalDateBean localDateBean = new LocalDateBean();
+        DateBean dateBean = new DateBean("2000/01/01", LocalDateTime.of(2000, 1, 1, 1, 2, 3));
+        BeanFieldsUtils.copyPropertyToProperty(dateBean, localDateBean);
+        Assert.assertEquals(LocalDate.of(2000, 1, 1), localDateBean.day);
+        Assert.assertEquals(PersonBeanFactory.birthStr, localDateBean.birthDate);
+        DateBean copied = new DateBean();
+        BeanFieldsUtils.copyPropertyToProperty(localDateBean, copied);
+        Assert.assertEquals("2000/01/01", copied.day);
+        Map<String, Object> dateMap = new HashMap<>();
+        dateMap.put("slashDay", "2000/12/31");
+        dateMap.put("birthDate", birth);
+        LocalDateBean fromMap = new LocalDateBean();
+        BeanFieldsUtils.copyKeyToProperty(dateMap, fromMap);
+        Assert.assertEquals(LocalDate.of(2000, 12, 31), fromMap.slashDay);
+        Assert.assertEquals(PersonBeanFactory.birthStr, fromMap.birthDate);
+
+        //多线程并发解析、格式化
+        long errors = java.util.stream.IntStream.range(0, 200_000).parallel().filter(i -> {
+            LocalDateTime dateTime = LocalDateTime.of(1970, 1, 1, 0, 0, 0).plusSeconds(i * 7919L);
+            String text = formatter.format(dateTime);
+            return !dateTime.equals(BeanFieldsUtils.parse(text, LocalDateTime.class))
+                    || !text.equals(DateFormatUtils.format(dateTime, DateFormatUtils.DEFAULT_PATTERN));
+        }).count();
+        Assert.assertEquals(0, errors);
+    }
+
+    @Test
+    public void parallelListCopy() {
+        int size = 200_000;
+        List<PersonA> personAList = new ArrayList<PersonA>() {
+        };
+        List<Map<String, String>> personAMapList = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            personAList.add(new PersonA("迪迦" + i, String.valueOf(i), "男", String.valueOf(i * 2L), "175", PersonBeanFactory.birthStr));
+            Map<String, String> personAMap = new HashMap<>();
+            personAMap.put("name", "迪迦" + i);
+            personAMap.put("age", String.valueOf(i));
+            personAMapList.add(personAMap);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int round = 0; round < 3; round++) {
+                List<PersonB> sequential = new ArrayList<PersonB>() {
+                };
+                long start = System.nanoTime();
+                BeanFieldsUtils.copyListPropertyToProperty(personAList, sequential);
+                long sequentialTime = System.nanoTime() - start;
+                List<PersonB> parallel = new ArrayList<PersonB>() {
+                };
+                start = System.nanoTime();
+                BeanFieldsUtils.copyListPropertyToPropertyParallel(personAList, parallel, false, null, null, null, false, null, BeanFieldsUtils.CopyEngine.LAMBDA, pool, BeanFieldsUtils.DEFAULT_PARALLEL_THRESHOLD);
+                long parallelTime = System.nanoTime() - start;
+                System.out.println("PersonA->PersonB x" + size + " sequential: " + sequentialTime / 1_000_000 + " ms, parallel(4): " + parallelTime / 1_000_000 + " ms");
+                Assert.assertEquals(size, parallel.size());
+                for (int i = 0; i < size; i += 997) {
+                    Assert.assertEquals(sequential.get(i).toString(), parallel.get(i).toString());
+                    Assert.assertEquals(i, parallel.get(i).getAge());
+                }
+            }
+
+            List<PersonB> fromMap = new ArrayList<PersonB>() {
+            };
+            BeanFieldsUtils.copyListKeyToPropertyParallel(personAMapList, fromMap, false, null, null, null, false, null, pool, 1);
+            Assert.assertEquals(size, fromMap.size());
+            for (int i = 0; i < size; i += 997) {
+                Assert.assertEquals("迪迦" + i, fromMap.get(i).getName());
+                Assert.assertEquals(i, fromMap.get(i).getAge());
+            }
+
+            //低于阈值时顺序复制
+            List<PersonB> small = new ArrayList<PersonB>() {
+            };
+            BeanFieldsUtils.copyListPropertyToPropertyParallel(new ArrayList<PersonA>(personAList.subList(0, 10)) {
+            }, small);
+            Assert.assertEquals(10, small.size());
+            Assert.assertEquals("迪迦9", small.get(9).getName());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void beanMapper() {
+        BeanMapper<PersonA, PersonB> mapper = BeanMapper.of(PersonA.class, PersonB.class, BeanFieldsUtils.CopyEngine.LAMBDA);
+        PersonB personB = mapper.apply(personA());
+        log(personA(), personB);
+        Assert.assertEquals(1800, personB.getAge());
+        Assert.assertNull(mapper.apply(null));
+
+        //源数据逐个生成、逐个映射，不保存在列表中
+        int size = 1_000_000;
+        long ageSum = mapper.map(IntStream.range(0, size).mapToObj(i -> new PersonA("迪迦", String.valueOf(i % 100), "男", "6000", "175", null)))
+                .mapToLong(PersonB::getAge)
+                .sum();
+        Assert.assertEquals(size / 100 * 4950L, ageSum);
+        long parallelCount = mapper.map(IntStream.range(0, size).parallel().mapToObj(i -> personA()))
+                .filter(item -> item.getWeight() == 6000L)
+                .count();
+        Assert.assertEquals(size, parallelCount);
+
+        Iterator<PersonA> personAIterator = new Iterator<PersonA>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < 3;
+            }
+
+            @Override
+            public PersonA next() {
+                return new PersonA("塞罗" + index, String.valueOf(index++), null, null, null, null);
+            }
+        };
+        Iterator<PersonB> personBIterator = mapper.map(personAIterator);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(personBIterator.hasNext());
+            PersonB next = personBIterator.next();
+            Assert.assertEquals("塞罗" + i, next.getName());
+            Assert.assertEquals(i, next.getAge());
+        }
+        Assert.assertFalse(personBIterator.hasNext());
+
+        List<PersonA> personAList = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            personAList.add(new PersonA(null, String.valueOf(i), null, null, null, null));
+        }
+        long spliteratorSum = java.util.stream.StreamSupport.stream(mapper.map(personAList.spliterator()), true)
+                .mapToLong(PersonB::getAge)
+                .sum();
+        Assert.assertEquals(9999L * 10_000 / 2, spliteratorSum);
+    }
+
+    @Test
+    public void explicitTypes() {
+        //普通的ArrayList、HashMap，不需要匿名子类
+        List<PersonA> personAList = new ArrayList<>();
+        personAList.add(personA());
+        personAList.add(PersonBeanFactory.personA2());
+
+        List<PersonB> personBList = new ArrayList<>();
+        BeanFieldsUtils.copyListPropertyToProperty(personAList, personBList, PersonA.class, PersonB.class);
+        Assert.assertEquals(2, personBList.size());
+        Assert.assertEquals(1900, personBList.get(1).getAge());
+        log(personAList, personBList);
+
+        List<PersonB> suppliedList = new ArrayList<>();
+        BeanFieldsUtils.copyListPropertyToProperty(personAList, suppliedList, PersonA.class, PersonB.class, () -> new PersonB(null, 0, 1L, 0, null), false, null, null, null, false, null, BeanFieldsUtils.CopyEngine.LAMBDA);
+        Assert.assertEquals(6000L, (long) suppliedList.get(0).getWeight());
+        Assert.assertEquals("塞罗", suppliedList.get(1).getName());
+
+        Map<String, Object> personBMap = new HashMap<>();
+        BeanFieldsUtils.copyPropertyToKey(PersonBeanFactory.personB(), personBMap, Object.class);
+        Assert.assertEquals(18, personBMap.get("age"));
+        Map<String, String> personBStringMap = new HashMap<>();
+        BeanFieldsUtils.copyPropertyToKey(PersonBeanFactory.personB(), personBStringMap, String.class);
+        Assert.assertEquals("1.75", personBStringMap.get("height"));
+        log(personBMap, personBStringMap);
+
+        List<Map<String, Object>> personMapList = new ArrayList<>();
+        BeanFieldsUtils.copyListPropertyToKey(personAList, personMapList, PersonA.class);
+        Assert.assertEquals("1900", personMapList.get(1).get("age"));
+        List<Map<String, Object>> treeMapList = new ArrayList<>();
+        BeanFieldsUtils.copyListPropertyToKey(personAList, treeMapList, PersonA.class, java.util.TreeMap::new, false, null, null, false, null);
+        Assert.assertTrue(treeMapList.get(0) instanceof java.util.TreeMap);
+
+        List<Map<String, String>> personAMapList = new ArrayList<>();
+        personAMapList.add(PersonBeanFactory.personAMap());
+        List<PersonB> fromMapList = new ArrayList<>();
+        BeanFieldsUtils.copyListKeyToProperty(personAMapList, fromMapList, PersonB.class);
+        Assert.assertEquals("迪迦", fromMapList.get(0).getName());
+        List<PersonB> fromMapParallel = new ArrayList<>();
+        BeanFieldsUtils.copyListKeyToPropertyParallel(personAMapList, fromMapParallel, PersonB.class);
+        Assert.assertEquals("迪迦", fromMapParallel.get(0).getName());
+
+        Map<String, Integer> ageMap = new HashMap<>();
+        Map<String, String> source = new HashMap<>();
+        source.put("age", "18");
+        BeanFieldsUtils.copyKeyToKey(source, ageMap, Integer.class);
+        Assert.assertEquals(Integer.valueOf(18), ageMap.get("age"));
+        try {
+            BeanFieldsUtils.copyKeyToKey(source, new HashMap<String, Integer>());
+            Assert.fail();
+        } catch (BeanFieldsUtils.GenericTypeNotFoundException e) {
+            System.out.println(e.getMessage());
+        }
+        try {
+            BeanFieldsUtils.copyListPropertyToProperty(personAList, new ArrayList<PersonB>());
+            Assert.fail();
+        } catch (BeanFieldsUtils.GenericTypeNotFoundException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static final BeanCopier<PersonA, PersonB> PERSON_COPIER = BeanCopier.builder(PersonA.class, PersonB.class)
+            .ignoreSource("sex")
+            .map("birthDate", "birthDay")
+            .copyEngine(BeanFieldsUtils.CopyEngine.LAMBDA)
+            .build();
+
+    @Test
+    public void beanCopier() {
+        System.out.println(PERSON_COPIER);
+        PersonB personB = PERSON_COPIER.copy(personA());
+        log(personA(), personB);
+        PersonB expected = new PersonB();
+        Map<String, String> birthMap = new HashMap<String, String>() {{
+            put("birthDate", "birthDay");
+        }};
+        BeanFieldsUtils.copyPropertyToProperty(personA(), expected, false, null, null, birthMap, false, null);
+        Assert.assertEquals(expected.toString(), personB.toString());
+        Assert.assertEquals(PersonBeanFactory.birth, personB.getBirthDay());
+
+        PersonB existing = new PersonB("大古", 0, null, 0, null);
+        BeanCopier<PersonA, PersonB> ageOnly = BeanCopier.builder(PersonA.class, PersonB.class)
+                .map("age", "age")
+                .ignoreOutOfMap()
+                .build();
+        ageOnly.copy(personA(), existing);
+        Assert.assertEquals("大古", existing.getName());
+        Assert.assertEquals(1800, existing.getAge());
+
+        List<PersonA> personAList = new ArrayList<>();
+        personAList.add(personA());
+        personAList.add(null);
+        personAList.add(PersonBeanFactory.personA2());
+        List<PersonB> personBList = PERSON_COPIER.copyAll(personAList);
+        Assert.assertEquals(3, personBList.size());
+        Assert.assertNull(personBList.get(1));
+        Assert.assertEquals("塞罗", personBList.get(2).getName());
+        Assert.assertEquals(1900, PERSON_COPIER.toMapper().apply(PersonBeanFactory.personA2()).getAge());
+
+        //多线程共享同一个BeanCopier
+        long errors = IntStream.range(0, 100_000).parallel()
+                .filter(i -> PERSON_COPIER.copy(personA()).getAge() != 1800)
+                .count();
+        Assert.assertEquals(0, errors);
+    }
+
 }
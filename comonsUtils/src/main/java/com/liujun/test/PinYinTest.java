@@ -0,0 +1,288 @@
+package com.liujun.test;
+
+import com.liujun.pinyin.PinYinFileConverter;
+import com.liujun.pinyin.PinYinUtil;
+import com.liujun.pinyin.PinyinIndex;
+import com.liujun.pinyin.PolyphoneDictionary;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 拼音测试
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class PinYinTest {
+
+    private static final String TEXT = "北京市朝阳区建国路88号，绿地中心A座2001室 Hello World!";
+
+    private void log(Object message) {
+        System.out.println(message);
+        System.out.println("=========================================");
+    }
+
+    private static HanyuPinyinOutputFormat format(HanyuPinyinVCharType vCharType) {
+        HanyuPinyinOutputFormat format = new HanyuPinyinOutputFormat();
+        format.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        format.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        format.setVCharType(vCharType);
+        return format;
+    }
+
+    @Test
+    public void sameAsPinyin4j() throws BadHanyuPinyinOutputFormatCombination {
+        HanyuPinyinOutputFormat withV = format(HanyuPinyinVCharType.WITH_V);
+        HanyuPinyinOutputFormat withColon = format(HanyuPinyinVCharType.WITH_U_AND_COLON);
+        int count = 0;
+        for (char c = '\u4E00'; c <= '\u9FA5'; c++) {
+            String[] vPinyins = PinyinHelper.toHanyuPinyinStringArray(c, withV);
+            if (vPinyins == null || vPinyins.length == 0) {
+                continue;
+            }
+            String text = String.valueOf(c);
+            Assert.assertEquals(vPinyins[0], PinYinUtil.getPingYin(text));
+            String colonPinyin = PinyinHelper.toHanyuPinyinStringArray(c, withColon)[0];
+            Assert.assertEquals(colonPinyin, PinYinUtil.getFullSpell(text));
+            Assert.assertEquals(String.valueOf(colonPinyin.charAt(0)).replaceAll("\\W", ""), PinYinUtil.getFirstSpell(text));
+            count++;
+        }
+        log(count + "个汉字与pinyin4j结果一致");
+        Assert.assertEquals("beijingshichaoyangqujianguolu88hao，lvdizhongxinAzuo2001shi Hello World!", PinYinUtil.getPingYin(TEXT));
+        Assert.assertEquals("bjscyqjgl88hldzxAz2001sHelloWorld", PinYinUtil.getFirstSpell(TEXT));
+        Assert.assertEquals("beijingshichaoyangqujianguolu88hao，lu:dizhongxinAzuo2001shi Hello World!", PinYinUtil.getFullSpell(TEXT));
+        //表外字符
+        Assert.assertEquals("ling", PinYinUtil.getFullSpell("〇"));
+    }
+
+    @Test
+    public void appendOverloads() throws IOException {
+        StringBuilder builder = new StringBuilder("前缀:");
+        PinYinUtil.appendPingYin(new StringBuilder(" \t" + TEXT + " \n"), builder);
+        Assert.assertEquals("前缀:" + PinYinUtil.getPingYin(TEXT), builder.toString());
+        builder.setLength(0);
+        PinYinUtil.appendFullSpell(TEXT, builder).append('|');
+        PinYinUtil.appendFirstSpell(TEXT, builder);
+        Assert.assertEquals(PinYinUtil.getFullSpell(TEXT) + "|" + PinYinUtil.getFirstSpell(TEXT), builder.toString());
+        //非StringBuilder的Appendable
+        StringWriter writer = new StringWriter();
+        PinYinUtil.appendFirstSpell(TEXT, writer).append('|');
+        PinYinUtil.appendFullSpell(CharBuffer.wrap(TEXT), writer);
+        Assert.assertEquals(PinYinUtil.getFirstSpell(TEXT) + "|" + PinYinUtil.getFullSpell(TEXT), writer.toString());
+        //\W过滤：全角符号、空白、ASCII标点
+        Assert.assertEquals("a_1z", PinYinUtil.getFirstSpell("a_1！@ \u0080爪"));
+        Assert.assertEquals("", PinYinUtil.getPingYin("   "));
+    }
+
+    @Test
+    public void polyphone() throws IOException {
+        Assert.assertEquals("chongqingyinhangchangshafenhang", PinYinUtil.getPingYin("重庆银行长沙分行"));
+        Assert.assertEquals("cqyhcsfh", PinYinUtil.getFirstSpell("重庆银行长沙分行"));
+        //最长匹配: 银行卡优先于银行；成长期切分为成长/期
+        Assert.assertEquals("yinhangka", PinYinUtil.getPingYin("银行卡"));
+        Assert.assertEquals("chengzhangqi", PinYinUtil.getPingYin("成长期"));
+        Assert.assertEquals("shenglu:e", PinYinUtil.getFullSpell("省略"));
+        Assert.assertEquals("shenglve", PinYinUtil.getPingYin("省略"));
+        Assert.assertArrayEquals(new String[]{"chong", "qing"}, PolyphoneDictionary.getDefault().getReading("重庆"));
+        Assert.assertNull(PolyphoneDictionary.getDefault().getReading("重"));
+        log(PolyphoneDictionary.getDefault());
+
+        //用户词
+        PolyphoneDictionary dictionary = PolyphoneDictionary.getDefault();
+        Assert.assertEquals("zhangle", PinYinUtil.getPingYin("长乐"));
+        dictionary.addWord("长乐", "chang", "le");
+        try {
+            Assert.assertEquals("changle", PinYinUtil.getPingYin("长乐"));
+            Assert.assertEquals("cl", PinYinUtil.getFirstSpell("长乐"));
+        } finally {
+            Assert.assertTrue(dictionary.removeWord("长乐"));
+        }
+        Assert.assertEquals("zhangle", PinYinUtil.getPingYin("长乐"));
+        Assert.assertFalse(dictionary.removeWord("长乐"));
+
+        //独立词典
+        PolyphoneDictionary custom = PolyphoneDictionary.load(new StringReader("# 注释\n\n率领 shuai ling\n绿林 lu: lin\n"));
+        Assert.assertEquals(2, custom.size());
+        Assert.assertArrayEquals(new String[]{"lv", "lin"}, custom.getReading("绿林"));
+        try {
+            PolyphoneDictionary.load(new StringReader("重庆 chong\n"));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+        try {
+            custom.addWord("重庆", "chong2", "qing4");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+
+        //逐个添加只修改词表，查询时编译一次
+        long start = System.nanoTime();
+        for (int i = 0; i < 20000; i++) {
+            custom.addWord(new String(new char[]{(char) (0x4E00 + i / 200), (char) (0x4E00 + i % 200)}), "a", "b");
+        }
+        Assert.assertEquals(20002, custom.size());
+        Assert.assertArrayEquals(new String[]{"a", "b"}, custom.getReading(new String(new char[]{(char) (0x4E00 + 99), (char) (0x4E00 + 199)})));
+        Assert.assertArrayEquals(new String[]{"shuai", "ling"}, custom.getReading("率领"));
+        log("addWord 20000个词后查询耗时: " + (System.nanoTime() - start) / 1000000 + "ms");
+    }
+
+    @Test
+    public void pinyinIndex() {
+        PinyinIndex<Integer> index = new PinyinIndex<>(2);
+        index.add("北京", 1);
+        index.add("北京市朝阳区", 2);
+        index.add("背景", 3);
+        index.add("南京", 4, 10);
+        index.add("重庆", 5);
+        index.add("Beijing Hotel", 6);
+        index.add("长沙", 7);
+        Assert.assertEquals(Arrays.asList(1, 3, 2), index.search("bj", 10));
+        Assert.assertEquals(Arrays.asList(1, 3, 2, 6), index.search("beijing", 10));
+        Assert.assertEquals(Arrays.asList(1, 3, 2), index.search("bjing", 10));
+        Assert.assertEquals(Arrays.asList(1, 2), index.search("北j", 10));
+        Assert.assertEquals(Collections.singletonList(2), index.search("bei jing s", 10));
+        Assert.assertEquals(Collections.singletonList(2), index.search("北京shichaoy", 10));
+        Assert.assertEquals(Collections.singletonList(6), index.search("BeijingH", 10));
+        //权重大的排在前面，top-k使用节点缓存
+        Assert.assertEquals(Collections.singletonList(4), index.search("nj", 10));
+        Assert.assertEquals(Collections.singletonList(4), index.search("n", 1));
+        Assert.assertEquals(Arrays.asList(1, 3), index.search("b", 2));
+        //多音字按词典读音
+        Assert.assertEquals(Collections.singletonList(5), index.search("chongq", 10));
+        Assert.assertEquals(Collections.singletonList(7), index.search("changs", 10));
+        Assert.assertTrue(index.search("zhongq", 10).isEmpty());
+
+        Assert.assertTrue(index.remove("北京", 1));
+        Assert.assertFalse(index.remove("北京", 1));
+        Assert.assertEquals(Arrays.asList(3, 2), index.search("b", 2));
+        Assert.assertEquals(Collections.singletonList(2), index.search("北j", 10));
+        Assert.assertEquals(6, index.size());
+        log(index);
+    }
+
+    @Test
+    public void pinyinIndexPerformance() {
+        String characters = "王李张刘陈杨黄赵吴周徐孙马朱胡郭何高林罗郑梁谢宋唐许韩冯邓曹彭曾肖田董袁潘于蒋蔡余杜叶程苏魏吕丁任沈姚卢姜崔钟谭陆汪范金石廖贾夏韦付方白邹孟熊秦邱江尹薛闫段雷侯龙史陶黎贺顾毛郝龚邵万钱严覃武戴莫孔向汤"
+                + "伟芳娜秀英敏静丽强磊军洋勇艳杰娟涛明超霞平刚桂兰玉华建国文斌波辉红梅鹏飞宇浩然子轩欣怡晨阳思雨佳琪俊豪博文一诺";
+        Random random = new Random(1);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int j = 2 + random.nextInt(2); j > 0; j--) {
+                name.append(characters.charAt(random.nextInt(characters.length())));
+            }
+            names.add(name.toString());
+        }
+        PinyinIndex<String> index = new PinyinIndex<>();
+        long start = System.nanoTime();
+        index.addAll(names, name -> name);
+        log("PinyinIndex添加" + index.size() + "条耗时: " + (System.nanoTime() - start) / 1000000 + "ms");
+        String[] queries = {"w", "zh", "wangw", "zhangsan", "王w", "lj", "liujun", "c", "chenj", "hgy"};
+        for (String query : queries) {
+            index.search(query, 10);
+        }
+        int rounds = 200;
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (String query : queries) {
+                index.search(query, 10);
+            }
+        }
+        log("PinyinIndex查询平均耗时: " + (System.nanoTime() - start) / 1000 / (rounds * queries.length) + "us");
+        for (String query : queries) {
+            for (String name : index.search(query, 10)) {
+                String fullSpell = PinYinUtil.getPingYin(name);
+                String firstSpell = PinYinUtil.getFirstSpell(name);
+                Assert.assertTrue(name, query.charAt(0) == name.charAt(0) || fullSpell.startsWith(query.substring(0, 1)) || firstSpell.startsWith(query.substring(0, 1)));
+            }
+        }
+        Assert.assertEquals(10, index.search("w", 10).size());
+        Assert.assertEquals(index.search("w", 10), index.search("w", 100).subList(0, 10));
+    }
+
+    @Test
+    public void fileConverter() throws IOException {
+        StringBuilder text = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        Random random = new Random(1);
+        int lines = 5000;
+        for (int i = 0; i < lines; i++) {
+            String line = i == 100 ? TEXT + TEXT + TEXT + TEXT : TEXT.substring(random.nextInt(TEXT.length()));
+            text.append(" ").append(line).append(i % 2 == 0 ? "\r\n" : "\n");
+            expected.append(PinYinUtil.getPingYin(line).replaceAll(" ", "")).append("\n");
+        }
+        //最后一行没有换行符
+        text.append("重庆银行");
+        expected.append("chongqingyinhang\n");
+        Path input = Files.createTempFile("pinyin", ".txt");
+        Path output = Files.createTempFile("pinyin", ".out");
+        try {
+            Files.write(input, text.toString().getBytes(StandardCharsets.UTF_8));
+            //块比最长的一行小，需要扩大
+            PinYinFileConverter.Result result = new PinYinFileConverter(3, 64).convert(input, output);
+            log(result);
+            Assert.assertEquals(lines + 1, result.getLines());
+            Assert.assertEquals(Files.size(input), result.getBytes());
+            Assert.assertEquals(expected.toString(), new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+            log(new PinYinFileConverter().convert(input, output));
+            Assert.assertEquals(expected.toString(), new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+            //输入、输出是同一个文件时拒绝转换，输入不被清空
+            try {
+                new PinYinFileConverter().convert(input, input.getParent().resolve(".").resolve(input.getFileName()));
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                log(e.getMessage());
+            }
+            Assert.assertEquals(text.toString(), new String(Files.readAllBytes(input), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(input);
+            Files.delete(output);
+        }
+    }
+
+    @Test
+    public void performance() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append(TEXT);
+        }
+        String text = builder.toString();
+        PinYinUtil.getFullSpell(text);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            PinYinUtil.getFullSpell(text);
+            PinYinUtil.getFirstSpell(text);
+        }
+        log("getFullSpell+getFirstSpell " + text.length() + "个字符 x10 耗时: " + (System.nanoTime() - start) / 1000000 + "ms");
+        StringBuilder out = new StringBuilder(text.length() * 4);
+        start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            out.setLength(0);
+            PinYinUtil.appendFullSpell(text, out);
+            out.setLength(0);
+            PinYinUtil.appendFirstSpell(text, out);
+        }
+        log("appendFullSpell+appendFirstSpell(复用StringBuilder) " + text.length() + "个字符 x10 耗时: " + (System.nanoTime() - start) / 1000000 + "ms");
+    }
+}
@@ -0,0 +1,660 @@
+package com.liujun.test;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONWriter;
+import com.liujun.utils.TreeCycleException;
+import com.liujun.utils.TreeIndex;
+import com.liujun.utils.TreeModel;
+import com.liujun.utils.TreeSubModel;
+import com.liujun.utils.TreeSubModelCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 树结构化测试
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class TreeModelTest {
+
+    private void log(Object message) {
+        System.out.println(message);
+        System.out.println("=========================================");
+    }
+
+    /**
+     * 测试用的元素
+     */
+    public static class Node {
+        private final Integer id;
+        private final Integer parentId;
+        private final Integer groupId;
+        private final String name;
+
+        public Node(Integer id, Integer parentId, Integer groupId, String name) {
+            this.id = id;
+            this.parentId = parentId;
+            this.groupId = groupId;
+            this.name = name;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public Integer getParentId() {
+            return parentId;
+        }
+
+        public Integer getGroupId() {
+            return groupId;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * 生成完全树，id从1开始，1为根
+     *
+     * @param count  元素个数
+     * @param fanOut 每个节点的子节点个数
+     */
+    static List<Node> nodes(int count, int fanOut) {
+        List<Node> nodes = new ArrayList<>(count);
+        nodes.add(new Node(1, null, 1, "node1"));
+        for (int id = 2; id <= count; id++) {
+            nodes.add(new Node(id, (id - 2) / fanOut + 1, 1, "node" + id));
+        }
+        return nodes;
+    }
+
+    /**
+     * 只实现isChild的树
+     */
+    static class IsChildTree extends TreeModel<Node, Integer> {
+        final List<Node> nodes;
+        final List<Integer> removed = new ArrayList<>();
+        int loadCount;
+        Object version;
+
+        IsChildTree(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean isChild(Integer parentPrimaryKey, Node entity) {
+            return Objects.equals(parentPrimaryKey, entity.getParentId());
+        }
+
+        @Override
+        public List<Node> getAllEntity() {
+            loadCount++;
+            return nodes;
+        }
+
+        @Override
+        public Object getDataVersion() {
+            return version;
+        }
+
+        @Override
+        public Node getRootEntity() {
+            return nodes.get(0);
+        }
+
+        @Override
+        public void removeEntities(Integer[] primaryKeys) {
+            removed.addAll(Arrays.asList(primaryKeys));
+        }
+
+        @Override
+        public JSONObject getNode(Node entity) {
+            JSONObject node = new JSONObject(true);
+            node.put("id", entity.getId());
+            node.put("name", entity.getName());
+            return node;
+        }
+
+        @Override
+        public Integer getPrimaryKey(Node entity) {
+            return entity.getId();
+        }
+    }
+
+    /**
+     * 重写了getParentKey的树
+     */
+    static class ParentKeyTree extends IsChildTree {
+        ParentKeyTree(List<Node> nodes) {
+            super(nodes);
+        }
+
+        @Override
+        public Integer getParentKey(Node entity) {
+            return entity.getParentId();
+        }
+    }
+
+    /**
+     * 子表树，groupId为外键
+     */
+    static class ParentKeySubTree extends TreeSubModel<Node, Integer> {
+        final List<Node> nodes;
+        final AtomicInteger loadCount = new AtomicInteger();
+        final AtomicInteger entityCount = new AtomicInteger();
+        long loadMillis;
+
+        ParentKeySubTree(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean isChild(Integer parentPrimaryKey, Node entity) {
+            return Objects.equals(parentPrimaryKey, entity.getParentId());
+        }
+
+        @Override
+        public List<Node> getAllEntity(Integer foreignKey) {
+            loadCount.incrementAndGet();
+            if (loadMillis > 0) {
+                try {
+                    Thread.sleep(loadMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return nodes.stream().filter(node -> Objects.equals(foreignKey, node.getGroupId())).collect(Collectors.toList());
+        }
+
+        @Override
+        public Node getRootEntity(Integer foreignKey) {
+            return nodes.stream().filter(node -> Objects.equals(foreignKey, node.getGroupId())).findFirst().orElse(null);
+        }
+
+        @Override
+        public void removeEntities(Integer[] primaryKeys) {
+        }
+
+        @Override
+        public JSONObject getNode(Node entity) {
+            JSONObject node = new JSONObject(true);
+            node.put("id", entity.getId());
+            node.put("name", entity.getName());
+            return node;
+        }
+
+        @Override
+        public Integer getPrimaryKey(Node entity) {
+            return entity.getId();
+        }
+
+        @Override
+        public Integer getForeignKey(Node entity) {
+            return entity.getGroupId();
+        }
+
+        @Override
+        public Node getEntity(Integer primaryKey) {
+            entityCount.incrementAndGet();
+            return nodes.stream().filter(node -> Objects.equals(primaryKey, node.getId())).findFirst().orElse(null);
+        }
+
+        @Override
+        public Integer getParentKey(Node entity) {
+            return entity.getParentId();
+        }
+    }
+
+    @Test
+    public void parentKeyIndex() {
+        List<Node> nodes = nodes(200, 3);
+        JSONObject expected = new IsChildTree(nodes).getTree();
+        JSONObject actual = new ParentKeyTree(nodes).getTree();
+        Assert.assertEquals(expected.toJSONString(), actual.toJSONString());
+        Assert.assertEquals(new IsChildTree(nodes).getTree(5).toJSONString(), new ParentKeyTree(nodes).getTree(5).toJSONString());
+        Assert.assertEquals(expected.toJSONString(), new ParentKeySubTree(nodes).getTree(1).toJSONString());
+        log(new ParentKeyTree(nodes(10, 3)).getTree().toJSONString());
+        //未重写getParentKey时默认返回null(没有父元素)，生成树仍按isChild
+        Assert.assertNull(new IsChildTree(nodes).getParentKey(nodes.get(5)));
+
+        IsChildTree isChildTree = new IsChildTree(nodes);
+        ParentKeyTree parentKeyTree = new ParentKeyTree(nodes);
+        Assert.assertEquals(isChildTree.removeEntityAndChildren(2), parentKeyTree.removeEntityAndChildren(2));
+        Assert.assertEquals(isChildTree.removed.stream().sorted().collect(Collectors.toList()),
+                parentKeyTree.removed.stream().sorted().collect(Collectors.toList()));
+
+        List<Node> large = nodes(200000, 16);
+        long start = System.nanoTime();
+        JSONObject tree = new ParentKeyTree(large).getTree();
+        log("getParentKey 200000个元素生成树耗时: " + (System.nanoTime() - start) / 1000000 + "ms");
+        Assert.assertEquals(16, tree.getJSONArray("children").size());
+    }
+
+    @Test
+    public void deepTreeAndCycle() {
+        //单链，深度100000
+        List<Node> chain = nodes(100000, 1);
+        JSONObject tree = new ParentKeyTree(chain).getTree();
+        int depth = 0;
+        JSONObject node = tree;
+        while (!node.getJSONArray("children").isEmpty()) {
+            node = node.getJSONArray("children").getJSONObject(0);
+            depth++;
+        }
+        Assert.assertEquals(99999, depth);
+        Assert.assertEquals(Integer.valueOf(2000), new IsChildTree(chain.subList(0, 2000)).removeEntityAndChildren(1));
+        log("深度" + depth + "的树生成成功");
+
+        //2->3->4->2构成环
+        List<Node> cycle = new ArrayList<>(nodes(5, 1));
+        cycle.set(1, new Node(2, 4, 1, "node2"));
+        cycle.add(new Node(6, 1, 1, "node6"));
+        try {
+            new ParentKeyTree(cycle).getTree(2);
+            Assert.fail();
+        } catch (TreeCycleException e) {
+            log(e.getMessage());
+            Assert.assertEquals(Arrays.asList(2, 3, 4, 2), e.getCycleKeys());
+        }
+        try {
+            new IsChildTree(cycle).removeEntityAndChildren(3);
+            Assert.fail();
+        } catch (TreeCycleException e) {
+            log(e.getMessage());
+            Assert.assertEquals(Arrays.asList(3, 4, 2, 3), e.getCycleKeys());
+        }
+        //环不在根的子孙中时不影响生成树
+        Assert.assertEquals(1, new ParentKeyTree(cycle).getTree().getJSONArray("children").size());
+    }
+
+    @Test
+    public void writeTree() throws IOException {
+        List<Node> nodes = nodes(200, 3);
+        ParentKeyTree tree = new ParentKeyTree(nodes);
+        StringWriter writer = new StringWriter();
+        tree.writeTree(writer);
+        Assert.assertEquals(tree.getTree().toJSONString(), writer.toString());
+
+        writer = new StringWriter();
+        new IsChildTree(nodes).writeTree(5, writer);
+        Assert.assertEquals(tree.getTree(5).toJSONString(), writer.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParentKeySubTree(nodes).writeTree(1, out);
+        Assert.assertEquals(tree.getTree().toJSONString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        //重写writeNode直接写属性，深度100000的单链也能输出
+        ParentKeyTree chain = new ParentKeyTree(nodes(100000, 1)) {
+            @Override
+            public void writeNode(Node entity, JSONWriter writer) {
+                writer.writeKey("id");
+                writer.writeValue(entity.getId());
+            }
+        };
+        CountingWriter counter = new CountingWriter();
+        long start = System.nanoTime();
+        chain.writeTree(counter);
+        log("深度100000的树流式输出" + counter.count + "个字符，耗时: " + (System.nanoTime() - start) / 1000000 + "ms");
+        Assert.assertTrue(counter.count > 100000 * "{\"id\":,\"children\":[]}".length());
+    }
+
+    /**
+     * 只计数不保存的Writer
+     */
+    static class CountingWriter extends Writer {
+        long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void cachedIndex() throws InterruptedException {
+        for (IsChildTree tree : Arrays.asList(new IsChildTree(nodes(40, 3)), new ParentKeyTree(nodes(40, 3)))) {
+            List<Node> data = new ArrayList<>(tree.nodes);
+            tree.enableCache(0);
+            JSONObject expected = tree.getTree();
+            Assert.assertEquals(expected.toJSONString(), tree.getTree().toJSONString());
+            Assert.assertEquals(tree.getTree(2).toJSONString(), new IsChildTree(data).getTree(2).toJSONString());
+            Assert.assertEquals(1, tree.loadCount);
+
+            //新增、修改(换父节点)、删除后与重新加载的结果一致
+            Node inserted = new Node(41, 2, 1, "node41");
+            data.add(inserted);
+            tree.onInsert(inserted);
+            Node renamed = new Node(5, 2, 1, "renamed5");
+            data.set(4, renamed);
+            tree.onUpdate(renamed);
+            Node moved = new Node(6, 4, 1, "node6");
+            data.remove(5);
+            data.add(moved);
+            tree.onUpdate(moved);
+            tree.onDelete(data.remove(6));
+            Assert.assertEquals(new IsChildTree(data).getTree().toJSONString(), tree.getTree().toJSONString());
+            Assert.assertEquals(1, tree.loadCount);
+
+            //删除子树同时更新缓存
+            Assert.assertEquals(Integer.valueOf(9), tree.removeEntityAndChildren(3));
+            Assert.assertNull(tree.getTree().getJSONArray("children").stream()
+                    .filter(child -> ((JSONObject) child).getInteger("id") == 3).findFirst().orElse(null));
+
+            //版本变化、有效期到期、手动清除时重新加载
+            tree.version = 1;
+            tree.getTree();
+            Assert.assertEquals(2, tree.loadCount);
+            tree.getTree();
+            Assert.assertEquals(2, tree.loadCount);
+            tree.enableCache(20);
+            Thread.sleep(30);
+            tree.getTree();
+            Assert.assertEquals(3, tree.loadCount);
+            tree.invalidateCache();
+            tree.getTree();
+            Assert.assertEquals(4, tree.loadCount);
+            tree.disableCache();
+            tree.getTree();
+            tree.getTree();
+            Assert.assertEquals(6, tree.loadCount);
+            log(tree.getClass().getSimpleName() + "缓存模式测试通过");
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void cachedIndexUpdateDuringRead() throws IOException {
+        for (IsChildTree tree : Arrays.asList(new IsChildTree(nodes(40, 3)), new ParentKeyTree(nodes(40, 3)))) {
+            tree.enableCache(0);
+            String before = tree.getTree().toJSONString();
+            Node inserted = new Node(41, 2, 1, "node41");
+            //写出期间增量修改索引：不持有锁所以不会死锁，正在写出的树不受影响
+            StringWriter writer = new StringWriter() {
+                private boolean notified;
+
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                    notifyInsert();
+                    super.write(cbuf, off, len);
+                }
+
+                @Override
+                public void write(String str, int off, int len) {
+                    notifyInsert();
+                    super.write(str, off, len);
+                }
+
+                @Override
+                public void write(int c) {
+                    notifyInsert();
+                    super.write(c);
+                }
+
+                private void notifyInsert() {
+                    if (!notified) {
+                        notified = true;
+                        tree.nodes.add(inserted);
+                        tree.onInsert(inserted);
+                    }
+                }
+            };
+            tree.writeTree(writer);
+            Assert.assertEquals(before, writer.toString());
+            Assert.assertEquals(new IsChildTree(tree.nodes).getTree().toJSONString(), tree.getTree().toJSONString());
+            Assert.assertNotEquals(before, tree.getTree().toJSONString());
+            Assert.assertEquals(1, tree.loadCount);
+        }
+    }
+
+    @Test
+    public void subModelCache() throws InterruptedException {
+        //3个外键，每个外键一棵树
+        List<Node> nodes = new ArrayList<>();
+        for (int group = 1; group <= 3; group++) {
+            int offset = (group - 1) * 100;
+            for (Node node : nodes(100, 4)) {
+                nodes.add(new Node(node.getId() + offset, node.getParentId() == null ? null : node.getParentId() + offset, group, node.getName()));
+            }
+        }
+        ParentKeySubTree tree = new ParentKeySubTree(nodes);
+        String expected = tree.getTree(2).toJSONString();
+        tree.enableCache(2);
+        TreeSubModelCache<Node, Integer> cache = tree.getCache();
+        Assert.assertEquals(expected, tree.getTree(2).toJSONString());
+        tree.getTree(2);
+        tree.getTree(1, 5);
+        //访问2使1成为最久未使用，加载3时淘汰1
+        tree.getTree(2);
+        tree.getTree(3);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        tree.getTree(2);
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+        Assert.assertEquals(4, tree.loadCount.get());
+        log(cache);
+
+        //外键已缓存时删除不调用getEntity，删除后清除该外键
+        Assert.assertEquals(Integer.valueOf(21), tree.removeEntityAndChildren(203));
+        Assert.assertEquals(0, tree.entityCount.get());
+        Assert.assertEquals(1, cache.size());
+        tree.invalidateCache(2);
+        Assert.assertEquals(0, cache.size());
+        //外键未缓存时调用getEntity
+        Assert.assertEquals(Integer.valueOf(1), tree.removeEntityAndChildren(300));
+        Assert.assertEquals(1, tree.entityCount.get());
+        tree.invalidateCache(3);
+
+        //并发加载同一外键只加载一次
+        tree.loadCount.set(0);
+        tree.loadMillis = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(() -> tree.getTree(1).toJSONString());
+        }
+        for (Future<String> future : executor.invokeAll(tasks)) {
+            try {
+                Assert.assertEquals(tree.getTree(1).toJSONString(), future.get());
+            } catch (ExecutionException e) {
+                throw new AssertionError(e.getCause());
+            }
+        }
+        executor.shutdown();
+        Assert.assertEquals(1, tree.loadCount.get());
+        log(cache);
+    }
+
+    @Test
+    public void getTrees() {
+        List<Node> nodes = nodes(20000, 4);
+        IsChildTree tree = new ParentKeyTree(nodes);
+        Assert.assertNull(tree.getTree(-1));
+        Assert.assertNull(new ParentKeySubTree(nodes).getTree(1, -1));
+        tree.loadCount = 0;
+
+        List<Integer> keys = new ArrayList<>();
+        for (int id = 2; id <= 1001; id += 2) {
+            keys.add(id);
+        }
+        keys.add(-1);
+        keys.add(null);
+        long start = System.nanoTime();
+        Map<Integer, JSONObject> trees = tree.getTrees(keys);
+        log("getTrees 500棵部分树耗时: " + (System.nanoTime() - start) / 1000000 + "ms，加载次数: " + tree.loadCount);
+        Assert.assertEquals(1, tree.loadCount);
+        Assert.assertEquals(500, trees.size());
+        Assert.assertEquals(keys.subList(0, 500), new ArrayList<>(trees.keySet()));
+        Assert.assertEquals(tree.getTree(10).toJSONString(), trees.get(10).toJSONString());
+        Assert.assertEquals(trees.get(10).toJSONString(), new ParentKeySubTree(nodes).getTrees(1, Arrays.asList(10, -1)).get(10).toJSONString());
+    }
+
+    @Test
+    public void batchRemove() {
+        List<Node> nodes = nodes(1000, 3);
+        for (IsChildTree tree : Arrays.asList(new IsChildTree(nodes), new ParentKeyTree(nodes))) {
+            List<Integer> batchSizes = new ArrayList<>();
+            List<String> progress = new ArrayList<>();
+            int count = tree.removeEntityAndChildren(2, 100, (removedKeys, removedCount, totalCount) -> {
+                batchSizes.add(removedKeys.length);
+                progress.add(removedCount + "/" + totalCount);
+            });
+            Assert.assertEquals(Integer.valueOf(count), tree.removeEntityAndChildren(2));
+            Assert.assertEquals(count * 2, tree.removed.size());
+            Assert.assertEquals(progress.get(progress.size() - 1), count + "/" + count);
+            Assert.assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+            //子元素总在父元素之前删除
+            List<Integer> order = tree.removed.subList(0, count);
+            for (int i = 0; i < order.size(); i++) {
+                Integer parentId = nodes.get(order.get(i) - 1).getParentId();
+                Assert.assertTrue(order.get(i) == 2 || order.indexOf(parentId) > i);
+            }
+            Assert.assertEquals(Integer.valueOf(2), order.get(order.size() - 1));
+            log(tree.getClass().getSimpleName() + "分批删除" + count + "个元素: " + progress);
+        }
+    }
+
+    @Test
+    public void parallelTree() {
+        List<Node> nodes = nodes(50000, 8);
+        //getNode开销较大的树
+        ParentKeyTree slowTree = new ParentKeyTree(nodes) {
+            @Override
+            public JSONObject getNode(Node entity) {
+                JSONObject node = super.getNode(entity);
+                node.put("title", String.format("%s(%08d)", entity.getName(), entity.getId()).toUpperCase());
+                return node;
+            }
+        };
+        long start = System.nanoTime();
+        String expected = slowTree.getTree().toJSONString();
+        long sequential = System.nanoTime() - start;
+        start = System.nanoTime();
+        String actual = slowTree.getTreeParallel().toJSONString();
+        long parallel = System.nanoTime() - start;
+        Assert.assertEquals(expected, actual);
+        log("50000个元素 串行: " + sequential / 1000000 + "ms, 并行: " + parallel / 1000000 + "ms");
+
+        Assert.assertEquals(new IsChildTree(nodes(3000, 4)).getTree().toJSONString(),
+                new IsChildTree(nodes(3000, 4)).getTreeParallel(new ForkJoinPool(3), 100).toJSONString());
+        Assert.assertEquals(new ParentKeySubTree(nodes).getTree(1).toJSONString(), new ParentKeySubTree(nodes).getTreeParallel(1).toJSONString());
+        //单链，每层只有一个子元素
+        Assert.assertEquals(new ParentKeyTree(nodes(1000, 1)).getTree().toJSONString(),
+                new ParentKeyTree(nodes(1000, 1)).getTreeParallel(ForkJoinPool.commonPool(), 10).toJSONString());
+    }
+
+    @Test
+    public void treeIndex() {
+        List<Node> nodes = nodes(2000, 3);
+        TreeIndex<Integer> index = new ParentKeyTree(nodes).getTreeIndex();
+        Assert.assertEquals(2000, index.size());
+        Assert.assertEquals(Integer.valueOf(1), index.getRootKey());
+        //与按父主键逐级向上查找的结果比较
+        for (int id = 1; id <= 2000; id += 37) {
+            int depth = 0;
+            for (Integer parentId = nodes.get(id - 1).getParentId(); parentId != null; parentId = nodes.get(parentId - 1).getParentId()) {
+                depth++;
+                Assert.assertTrue(index.isDescendant(id, parentId));
+                Assert.assertTrue(index.isAncestor(parentId, id));
+                Assert.assertFalse(index.isDescendant(parentId, id));
+            }
+            Assert.assertEquals(depth, index.getDepth(id));
+            Assert.assertEquals(nodes.get(id - 1).getParentId(), index.getParent(id));
+        }
+        Assert.assertFalse(index.isDescendant(5, 3));
+        Assert.assertFalse(index.isDescendant(5, 5));
+        Assert.assertFalse(index.isDescendant(-1, 1));
+        Assert.assertEquals(-1, index.getDepth(-1));
+        Assert.assertEquals(Arrays.asList(5, 6, 7), index.getChildren(2));
+        //主键->前序编号
+        for (int i = 0; i < index.size(); i++) {
+            Assert.assertEquals(i, index.indexOf(index.getKey(i)));
+        }
+        Assert.assertEquals(-1, index.indexOf(2001));
+        Assert.assertEquals(-1, index.indexOf(null));
+
+        IsChildTree tree = new IsChildTree(nodes);
+        int count = tree.removeEntityAndChildren(3);
+        List<Integer> descendants = index.getDescendants(3);
+        Assert.assertEquals(count - 1, descendants.size());
+        Assert.assertEquals(count - 1, index.getDescendantCount(3));
+        Assert.assertEquals(new HashSet<>(tree.removed.subList(0, count - 1)), new HashSet<>(descendants));
+        Assert.assertEquals(new IsChildTree(nodes).getTreeIndex().getDescendants(3), descendants);
+        Assert.assertEquals(index.getDescendants(1), new ParentKeySubTree(nodes).getTreeIndex(1).getDescendants(1));
+
+        List<Node> large = nodes(1000000, 16);
+        long start = System.nanoTime();
+        TreeIndex<Integer> largeIndex = new ParentKeyTree(large).getTreeIndex();
+        log("1000000个元素生成TreeIndex耗时: " + (System.nanoTime() - start) / 1000000 + "ms, " + largeIndex);
+        Assert.assertTrue(largeIndex.isDescendant(999999, 1));
+        Assert.assertEquals(999999, largeIndex.getDescendants(1).size());
+    }
+
+    @Test
+    public void lazyTree() {
+        List<Node> nodes = nodes(100000, 10);
+        int[] nodeCount = {0};
+        ParentKeyTree tree = new ParentKeyTree(nodes) {
+            @Override
+            public JSONObject getNode(Node entity) {
+                nodeCount[0]++;
+                return super.getNode(entity);
+            }
+        };
+        tree.enableCache(0);
+        JSONObject top = tree.getTree(1, 2);
+        log(top.getJSONArray("children").getJSONObject(0).toJSONString());
+        //1 + 10 + 100个节点
+        Assert.assertEquals(111, nodeCount[0]);
+        JSONObject child = top.getJSONArray("children").getJSONObject(0);
+        Assert.assertTrue(child.getBooleanValue("hasChildren"));
+        JSONObject grandChild = child.getJSONArray("children").getJSONObject(0);
+        Assert.assertTrue(grandChild.getBooleanValue("hasChildren"));
+        Assert.assertFalse(grandChild.containsKey("children"));
+        Assert.assertFalse(tree.getTree(1, 0).containsKey("children"));
+        Assert.assertNull(tree.getTree(-1, 2));
+
+        //展开第3层，分页
+        nodeCount[0] = 0;
+        Integer grandChildId = grandChild.getInteger("id");
+        JSONArray page = tree.getChildren(grandChildId, 3, 4);
+        Assert.assertEquals(4, page.size());
+        Assert.assertEquals(4, nodeCount[0]);
+        Assert.assertEquals(tree.getTree(grandChildId).getJSONArray("children").getJSONObject(3).getInteger("id"), page.getJSONObject(0).getInteger("id"));
+        Assert.assertEquals(2, tree.getChildren(grandChildId, 8, 100).size());
+        Assert.assertEquals(0, tree.getChildren(grandChildId, 20, 100).size());
+        Assert.assertFalse(tree.getChildren(99999, 0, 10).size() > 0);
+        Assert.assertEquals(1, tree.loadCount);
+    }
+}
@@ -0,0 +1,227 @@
+package com.liujun.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 可复用的对象属性复制器<br/>
+ * 通过builder一次性确定映射参数并生成映射计划，之后copy、copyAll只做属性值传递，不再解析属性名<br/>
+ * 不可变，线程安全，可以作为static final常量保存<br/>
+ * 创建时确定各属性的类型转换器，之后再注册的转换器(BeanFieldsUtils.registerConverter)对已创建的实例不生效
+ * <pre>
+ * private static final BeanCopier&lt;PersonA, PersonB&gt; COPIER = BeanCopier.builder(PersonA.class, PersonB.class)
+ *         .ignoreSource("sex")
+ *         .map("birthDate", "birthDay")
+ *         .build();
+ * </pre>
+ *
+ * @param <S> 源对象类型
+ * @param <T> 目标对象类型
+ * @author liujun
+ * @date 2026/10/18
+ */
+public final class BeanCopier<S, T> {
+
+    private final Class<S> sourceClass;
+
+    private final Class<T> targetClass;
+
+    private final FieldMappingPlan plan;
+
+    private final Supplier<? extends T> targetFactory;
+
+    private final BeanFieldsUtils.CopyEngine copyEngine;
+
+    private BeanCopier(Builder<S, T> builder) {
+        this.sourceClass = builder.sourceClass;
+        this.targetClass = builder.targetClass;
+        this.plan = FieldMappingPlan.propertyToProperty(targetClass, BeanFieldsUtils.getFieldMap(sourceClass, targetClass, builder.ignoreSame,
+                new ArrayList<>(builder.ignoreSourceFields), new ArrayList<>(builder.ignoreTargetFields),
+                builder.sourceToTargetFieldsMap, builder.ignoreOutOfMap, builder.fieldNameCompareHandler));
+        this.targetFactory = builder.targetFactory == null ? BeanInstantiator.of(targetClass) : builder.targetFactory;
+        this.copyEngine = builder.copyEngine;
+    }
+
+    /**
+     * 创建builder
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型
+     * @param <S>         源对象类型
+     * @param <T>         目标对象类型
+     * @return builder
+     */
+    public static <S, T> Builder<S, T> builder(Class<S> sourceClass, Class<T> targetClass) {
+        return new Builder<>(sourceClass, targetClass);
+    }
+
+    /**
+     * 复制属性到已有的目标对象
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    public void copy(S source, T target) {
+        BeanFieldsUtils.copyPropertyToProperty(source, target, plan, copyEngine);
+    }
+
+    /**
+     * 创建目标对象并复制属性
+     *
+     * @param source 源对象
+     * @return 目标对象，源对象为null时返回null
+     */
+    public T copy(S source) {
+        if (source == null) {
+            return null;
+        }
+        T target = targetFactory.get();
+        BeanFieldsUtils.copyPropertyToProperty(source, target, plan, copyEngine);
+        return target;
+    }
+
+    /**
+     * 为每个源对象创建目标对象并复制属性，顺序与源集合一致
+     *
+     * @param sources 源对象集合
+     * @return 目标对象列表，源对象为null的位置为null
+     */
+    public List<T> copyAll(Collection<? extends S> sources) {
+        if (sources == null || sources.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<T> targets = new ArrayList<>(sources.size());
+        for (S source : sources) {
+            targets.add(copy(source));
+        }
+        return targets;
+    }
+
+    /**
+     * 转换为使用同一映射计划的流式映射器
+     *
+     * @return 流式映射器
+     */
+    @SuppressWarnings("unchecked")
+    public BeanMapper<S, T> toMapper() {
+        return new BeanMapper<>(plan, (Supplier<T>) targetFactory, copyEngine);
+    }
+
+    public Class<S> getSourceClass() {
+        return sourceClass;
+    }
+
+    public Class<T> getTargetClass() {
+        return targetClass;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanCopier{" + sourceClass.getName() + " -> " + targetClass.getName() + ", fields=" + plan.entries.length + ", copyEngine=" + copyEngine + "}";
+    }
+
+    /**
+     * BeanCopier构建器，参数含义与BeanFieldsUtils.copyPropertyToProperty一致<br/>
+     * 非线程安全，build后修改builder不影响已生成的BeanCopier
+     *
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static final class Builder<S, T> {
+        private final Class<S> sourceClass;
+        private final Class<T> targetClass;
+        private boolean ignoreSame;
+        private final Collection<String> ignoreSourceFields = new LinkedHashSet<>();
+        private final Collection<String> ignoreTargetFields = new LinkedHashSet<>();
+        private final Map<String, String> sourceToTargetFieldsMap = new HashMap<>();
+        private boolean ignoreOutOfMap;
+        private BeanFieldsUtils.FieldNameCompareHandler fieldNameCompareHandler;
+        private Supplier<? extends T> targetFactory;
+        private BeanFieldsUtils.CopyEngine copyEngine = BeanFieldsUtils.getDefaultCopyEngine();
+
+        private Builder(Class<S> sourceClass, Class<T> targetClass) {
+            this.sourceClass = Objects.requireNonNull(sourceClass, "sourceClass");
+            this.targetClass = Objects.requireNonNull(targetClass, "targetClass");
+        }
+
+        /**
+         * 忽略属性名一致的属性
+         */
+        public Builder<S, T> ignoreSame() {
+            this.ignoreSame = true;
+            return this;
+        }
+
+        /**
+         * 忽略的源对象属性名
+         */
+        public Builder<S, T> ignoreSource(String... fieldNames) {
+            Collections.addAll(ignoreSourceFields, fieldNames);
+            return this;
+        }
+
+        /**
+         * 忽略的目标对象属性名
+         */
+        public Builder<S, T> ignoreTarget(String... fieldNames) {
+            Collections.addAll(ignoreTargetFields, fieldNames);
+            return this;
+        }
+
+        /**
+         * 源对象属性名->目标对象属性名的映射
+         */
+        public Builder<S, T> map(String sourceFieldName, String targetFieldName) {
+            sourceToTargetFieldsMap.put(sourceFieldName, targetFieldName);
+            return this;
+        }
+
+        /**
+         * 只复制map中映射的属性
+         */
+        public Builder<S, T> ignoreOutOfMap() {
+            this.ignoreOutOfMap = true;
+            return this;
+        }
+
+        /**
+         * 属性名比较处理器
+         */
+        public Builder<S, T> fieldNameCompareHandler(BeanFieldsUtils.FieldNameCompareHandler fieldNameCompareHandler) {
+            this.fieldNameCompareHandler = fieldNameCompareHandler;
+            return this;
+        }
+
+        /**
+         * 目标对象创建方法，默认使用无参构造器
+         */
+        public Builder<S, T> targetFactory(Supplier<? extends T> targetFactory) {
+            this.targetFactory = targetFactory;
+            return this;
+        }
+
+        /**
+         * 复制方式，默认为全局默认的复制方式
+         */
+        public Builder<S, T> copyEngine(BeanFieldsUtils.CopyEngine copyEngine) {
+            this.copyEngine = copyEngine == null ? BeanFieldsUtils.CopyEngine.REFLECT : copyEngine;
+            return this;
+        }
+
+        /**
+         * 生成映射计划并创建BeanCopier
+         *
+         * @return BeanCopier
+         */
+        public BeanCopier<S, T> build() {
+            return new BeanCopier<>(this);
+        }
+    }
+}
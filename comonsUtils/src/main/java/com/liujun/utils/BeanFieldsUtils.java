@@ -1,12 +1,18 @@
 package com.liujun.utils;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * 属性复制工具类
@@ -47,10 +53,41 @@ public class BeanFieldsUtils {
         String handler(String sourceFieldName);
     }
 
+    /**
+     * 对象->对象的属性复制方式
+     */
+    public enum CopyEngine {
+        /**
+         * 反射读写属性
+         */
+        REFLECT,
+        /**
+         * 通过LambdaMetafactory生成直接调用getter/setter的函数对象，int、long、double属性不装箱<br/>
+         * 没有public的getter/setter的属性退回反射方式
+         */
+        LAMBDA
+    }
+
+    /**
+     * 属性的日期格式<br/>
+     * 标注在字符串属性或Date、LocalDate、LocalDateTime、Instant属性上，该属性与字符串互相转换时使用此格式，
+     * 未标注的属性使用DateFormatUtils的全局默认格式
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.FIELD)
+    public @interface DatePattern {
+        /**
+         * @return DateTimeFormatter格式，如yyyy-MM-dd HH:mm:ss
+         */
+        String value();
+    }
+
     /**
      * 泛型类型未找到异常
      */
     public static class GenericTypeNotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
         public GenericTypeNotFoundException(String message) {
             super(message);
         }
@@ -64,9 +101,48 @@ public class BeanFieldsUtils {
         return new GenericTypeNotFoundException("无法获取到Map的值类型，请将没有元素的Map初始化。初始化方式: new Map<>()更改为new Map<K,V>(){}");
     }
 
+    /**
+     * 对象->对象、对象->map的映射计划缓存
+     */
+    private static final FieldMappingPlanCache PLAN_CACHE = new FieldMappingPlanCache();
+
+    /**
+     * 列表并行复制的默认阈值，源列表元素数量不超过该值时在当前线程复制
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * 列表并行复制时每段的最小元素数量
+     */
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+
+    /**
+     * 全局默认的对象->对象复制方式
+     */
+    private static volatile CopyEngine defaultCopyEngine = CopyEngine.REFLECT;
+
+    /**
+     * 设置全局默认的对象->对象复制方式
+     *
+     * @param copyEngine 复制方式
+     */
+    public static void setDefaultCopyEngine(CopyEngine copyEngine) {
+        defaultCopyEngine = copyEngine == null ? CopyEngine.REFLECT : copyEngine;
+    }
+
+    /**
+     * 获取全局默认的对象->对象复制方式
+     *
+     * @return 复制方式
+     */
+    public static CopyEngine getDefaultCopyEngine() {
+        return defaultCopyEngine;
+    }
+
     /**
      * 类型转换<br/>
-     * 支持可强转化类型之间转换，字符串转基本类型，各种类型转字符串<br/>
+     * 支持可强转化类型之间转换，字符串转基本类型，数字类型之间转换，Date与java.time类型转换，字符串与日期类型按全局默认格式转换，各种类型转字符串<br/>
+     * 按(源类型, 目标类型)从默认的ConverterRegistry中解析转换器，可通过registerConverter扩展<br/>
      * 当转化失败时，会抛出异常，或返回null<br/>
      *
      * @param source      源对象
@@ -74,129 +150,71 @@ public class BeanFieldsUtils {
      * @param <S>         源对象类型
      * @param <T>         目标对象类型
      * @return 目标对象
-     * @todo 考虑支持常见时间格式的字符串转Date类型，并考虑支持自定义时间格式
      */
     public static <S, T> T parse(S source, Class<T> targetClass) {
-        if (source == null || targetClass == null) {
-            return null;
-        }
-        Class<?> sourceClass = source.getClass();
-        //同类型，可强制转换的类型
-        if (sourceClass == targetClass || targetClass.isInstance(source)) {
-            return (T) source;
-        }
-        //将非包装类的基本类型转化为包装类
-        String targetClassName = targetClass.getName();
-        int lastSplitIndex = targetClassName.lastIndexOf(".");
-        String targetClassSimpleName = targetClassName.substring(lastSplitIndex + 1);
-        switch (targetClassSimpleName) {
-            case "byte":
-                targetClass = (Class<T>) Byte.class;
-                targetClassSimpleName = "Byte";
-                break;
-            case "int":
-                targetClass = (Class<T>) Integer.class;
-                targetClassSimpleName = "Integer";
-                break;
-            case "short":
-                targetClass = (Class<T>) Short.class;
-                targetClassSimpleName = "Short";
-                break;
-            case "long":
-                targetClass = (Class<T>) Long.class;
-                targetClassSimpleName = "Long";
-                break;
-            case "float":
-                targetClass = (Class<T>) Float.class;
-                targetClassSimpleName = "Float";
-                break;
-            case "double":
-                targetClass = (Class<T>) Double.class;
-                targetClassSimpleName = "Double";
-                break;
-            case "char":
-                targetClass = (Class<T>) Character.class;
-                targetClassSimpleName = "Character";
-                break;
-            case "boolean":
-                targetClass = (Class<T>) Boolean.class;
-                targetClassSimpleName = "Boolean";
-                break;
-            default:
-                break;
-        }
-        //? -> ? (可强制转换时)
-        if (targetClass.isInstance(source)) {
-            return (T) source;
-        }
-        //? -> string
-        if (targetClass.isAssignableFrom(String.class)) {
-            if (Date.class.isAssignableFrom(targetClass)) {
-                //todo
-                //日期格式转换
-            }
-            return (T) String.valueOf(source);
-        }
-        //string -> ?
-        if (sourceClass.isAssignableFrom(String.class)) {
-            String sourceStr = (String) source;
-            switch (targetClassSimpleName) {
-                case "Byte":
-                    return (T) Byte.valueOf(sourceStr);
-                case "Integer":
-                    return (T) Integer.valueOf(sourceStr);
-                case "Short":
-                    return (T) Short.valueOf(sourceStr);
-                case "Long":
-                    return (T) Long.valueOf(sourceStr);
-                case "Float":
-                    return (T) Float.valueOf(sourceStr);
-                case "Double":
-                    return (T) Double.valueOf(sourceStr);
-                case "Character":
-                    return (T) Character.valueOf((sourceStr).charAt(0));
-                case "Boolean":
-                    String lowerCase = sourceStr.toLowerCase();
-                    if ("true".equals(lowerCase) || "false".equals(lowerCase)) {
-                        return (T) Boolean.valueOf(lowerCase);
-                    }
-                    if ("^-?\\d+([.]\\d+)?&".matches(lowerCase)) {
-                        return (T) Boolean.valueOf(Double.valueOf(lowerCase) > 0);
-                    }
-                    return null;
-                default:
-                    break;
-            }
-            if (Date.class.isAssignableFrom(targetClass)) {
-                //todo
-                //日期格式转换
-            }
-        }
-        return null;
+        return ConverterRegistry.getDefault().convert(source, targetClass);
+    }
+
+    /**
+     * 向默认的ConverterRegistry注册类型转换器，已缓存的映射计划随之过期<br/>
+     * 与ConverterRegistry.getDefault().register相同；已创建的BeanCopier、BeanMapper仍使用创建时的转换器
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param converter  转换器
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     */
+    public static <S, T> void registerConverter(Class<S> sourceType, Class<T> targetType, ConverterRegistry.Converter<? super S, ? extends T> converter) {
+        ConverterRegistry.getDefault().register(sourceType, targetType, converter);
     }
 
     /**
      * 对象的属性值复制到另一个对象
      *
-     * @param source        源对象
-     * @param target        目标对象
-     * @param fieldFieldMap (目标属性名->源属性名)映射map
-     * @param <S>           源对象类型
-     * @param <T>           目标对象类型
-     */
-    private static <S, T> void copyPropertyToProperty(S source, T target, Map<Field, Field> fieldFieldMap) {
-        if (source == null || target == null || fieldFieldMap == null || fieldFieldMap.isEmpty()) {
+     * @param source     源对象
+     * @param target     目标对象
+     * @param plan       映射计划
+     * @param copyEngine 复制方式
+     * @param <S>        源对象类型
+     * @param <T>        目标对象类型
+     */
+    static <S, T> void copyPropertyToProperty(S source, T target, FieldMappingPlan plan, CopyEngine copyEngine) {
+        if (source == null || target == null || plan == null || plan.isEmpty()) {
+            return;
+        }
+        if (copyEngine == CopyEngine.LAMBDA) {
+            plan.lambdaCopier().copy(source, target);
             return;
         }
-        for (Map.Entry<Field, Field> entry : fieldFieldMap.entrySet()) {
-            Field targetField = entry.getKey();
-            Field sourceField = entry.getValue();
+        for (FieldMappingPlan.Entry entry : plan.entries) {
             try {
-                sourceField.setAccessible(true);
-                targetField.setAccessible(true);
-                Object value = parse(sourceField.get(source), targetField.getType());
+                Field sourceField = entry.sourceField;
+                Field targetField = entry.targetField;
+                //int、long、double属性直接读写，不经过装箱
+                switch (entry.copyMode) {
+                    case FieldMappingPlan.COPY_INT:
+                        targetField.setInt(target, sourceField.getInt(source));
+                        continue;
+                    case FieldMappingPlan.COPY_LONG:
+                        targetField.setLong(target, sourceField.getLong(source));
+                        continue;
+                    case FieldMappingPlan.COPY_DOUBLE:
+                        targetField.setDouble(target, sourceField.getDouble(source));
+                        continue;
+                    default:
+                        break;
+                }
+                Object value = sourceField.get(source);
                 if (value != null) {
-                    targetField.set(target, value);
+                    if (entry.copyMode == FieldMappingPlan.OBJECT) {
+                        value = entry.converter.convert(value);
+                        if (value != null) {
+                            targetField.set(target, value);
+                        }
+                    } else {
+                        parseToPrimitive((CharSequence) value, target, entry);
+                    }
                 }
             } catch (IllegalAccessException e) {
                 e.printStackTrace();
@@ -204,33 +222,50 @@ public class BeanFieldsUtils {
         }
     }
 
+    /**
+     * 字符串直接解析后写入int、long、double属性，不创建包装类对象
+     *
+     * @param value  字符串值
+     * @param target 目标对象
+     * @param entry  映射关系，copyMode为PARSE_*
+     */
+    private static void parseToPrimitive(CharSequence value, Object target, FieldMappingPlan.Entry entry) throws IllegalAccessException {
+        switch (entry.copyMode) {
+            case FieldMappingPlan.PARSE_INT:
+                entry.targetField.setInt(target, NumberParseUtils.parseInt(value));
+                break;
+            case FieldMappingPlan.PARSE_LONG:
+                entry.targetField.setLong(target, NumberParseUtils.parseLong(value));
+                break;
+            case FieldMappingPlan.PARSE_DOUBLE:
+                entry.targetField.setDouble(target, NumberParseUtils.parseDouble(value));
+                break;
+            default:
+                break;
+        }
+    }
+
     /**
      * 对象的属性值复制到map
      *
-     * @param source      源对象
-     * @param target      目标map
-     * @param fieldKeyMap (目标属性名->源属性名)映射map
-     * @param <S>         源对象类型
-     * @param <T>         目标map值类型
+     * @param source 源对象
+     * @param target 目标map
+     * @param plan   映射计划
+     * @param <S>    源对象类型
+     * @param <T>    目标map值类型
      */
-    private static <S, T> void copyPropertyToKey(S source, Map<String, T> target, Map<String, Field> fieldKeyMap) {
-        if (source == null || target == null || fieldKeyMap == null || fieldKeyMap.isEmpty()) {
+    private static <S, T> void copyPropertyToKey(S source, Map<String, T> target, FieldMappingPlan plan) {
+        if (source == null || target == null || plan == null || plan.isEmpty()) {
             return;
         }
-        for (Map.Entry<String, Field> entry : fieldKeyMap.entrySet()) {
-            String targetKey = entry.getKey();
-            Field sourceField = entry.getValue();
+        for (FieldMappingPlan.Entry entry : plan.entries) {
             try {
-                sourceField.setAccessible(true);
-                Class<?> targetValueClass;
-                try {
-                    targetValueClass = getGenericType(target, 1);
-                } catch (ClassCastException e) {
-                    throw mapGenericTypeNotFoundException();
-                }
-                Object value = parse(sourceField.get(source), targetValueClass);
+                Object value = entry.sourceField.get(source);
                 if (value != null) {
-                    target.put(targetKey, (T) value);
+                    value = entry.converter.convert(value);
+                    if (value != null) {
+                        target.put(entry.targetKey, (T) value);
+                    }
                 }
             } catch (IllegalAccessException e) {
                 e.printStackTrace();
@@ -241,24 +276,29 @@ public class BeanFieldsUtils {
     /**
      * map的属性值复制到对象的属性值
      *
-     * @param source      源map
-     * @param target      目标对象
-     * @param keyFieldMap (目标属性名->源属性名)映射map
-     * @param <S>         源map属性值类型
-     * @param <T>         目标对象类型
+     * @param source 源map
+     * @param target 目标对象
+     * @param plan   映射计划
+     * @param <S>    源map属性值类型
+     * @param <T>    目标对象类型
      */
-    private static <S, T> void copyKeyToProperty(Map<String, S> source, T target, Map<Field, String> keyFieldMap) {
-        if (source == null || target == null || keyFieldMap == null || keyFieldMap.isEmpty()) {
+    private static <S, T> void copyKeyToProperty(Map<String, S> source, T target, FieldMappingPlan plan) {
+        if (source == null || target == null || plan == null || plan.isEmpty()) {
             return;
         }
-        for (Map.Entry<Field, String> entry : keyFieldMap.entrySet()) {
-            Field targetField = entry.getKey();
-            String sourceKey = entry.getValue();
+        for (FieldMappingPlan.Entry entry : plan.entries) {
             try {
-                targetField.setAccessible(true);
-                Object value = parse(source.get(sourceKey), targetField.getType());
-                if (value != null) {
-                    targetField.set(target, value);
+                Object value = source.get(entry.sourceKey);
+                if (value == null) {
+                    continue;
+                }
+                if (entry.copyMode != FieldMappingPlan.OBJECT && value instanceof CharSequence) {
+                    parseToPrimitive((CharSequence) value, target, entry);
+                } else {
+                    value = entry.converter.convert(value);
+                    if (value != null) {
+                        entry.targetField.set(target, value);
+                    }
                 }
             } catch (IllegalAccessException e) {
                 e.printStackTrace();
@@ -269,24 +309,20 @@ public class BeanFieldsUtils {
     /**
      * map的属性值复制到map的属性值
      *
-     * @param source    源map
-     * @param keyKeyMap (目标属性名->源属性名)映射map
-     * @param <S>       源map属性值类型
-     * @param <T>       目标map属性值类型
+     * @param source           源map
+     * @param target           目标map
+     * @param keyKeyMap        (目标属性名->源属性名)映射map
+     * @param targetValueClass 目标map值类型
+     * @param <S>              源map属性值类型
+     * @param <T>              目标map属性值类型
      */
-    private static <S, T> void copyKeyToKey(Map<String, S> source, Map<String, T> target, Map<String, String> keyKeyMap) {
+    private static <S, T> void copyKeyToKey(Map<String, S> source, Map<String, T> target, Map<String, String> keyKeyMap, Class<?> targetValueClass) {
         if (source == null || target == null || keyKeyMap == null || keyKeyMap.isEmpty()) {
             return;
         }
         for (Map.Entry<String, String> entry : keyKeyMap.entrySet()) {
             String targetKey = entry.getKey();
             String sourceKey = entry.getValue();
-            Class<?> targetValueClass;
-            try {
-                targetValueClass = getGenericType(target, 1);
-            } catch (ClassCastException e) {
-                throw mapGenericTypeNotFoundException();
-            }
             Object value = parse(source.get(sourceKey), targetValueClass);
             if (value != null) {
                 target.put(targetKey, (T) value);
@@ -294,15 +330,102 @@ public class BeanFieldsUtils {
         }
     }
 
-    private static List<String> filedNameFilter(List<String> allFields, List<String> ignoreFields, Collection<String> fieldsInMap, boolean ignoreOutOfMap) {
-        Stream<String> fieldsStream = allFields.stream();
-        if (ignoreFields != null && !ignoreFields.isEmpty()) {
-            fieldsStream = fieldsStream.filter(fieldName -> !ignoreFields.contains(fieldName));
+    /**
+     * 为源列表的每个元素创建目标对象并复制，结果按源列表顺序一次性添加到目标列表<br/>
+     * pool为null或元素数量不超过sequentialThreshold时在当前线程复制，否则拆分为多段在pool中并行复制
+     *
+     * @param source              源列表
+     * @param target              目标列表
+     * @param targetFactory       目标对象创建器
+     * @param copier              (源元素, 目标对象)复制方法
+     * @param pool                线程池
+     * @param sequentialThreshold 顺序复制的阈值
+     */
+    @SuppressWarnings("unchecked")
+    private static <S, T> void copyList(List<S> source, List<T> target, Supplier<? extends T> targetFactory, BiConsumer<S, T> copier, ForkJoinPool pool, int sequentialThreshold) {
+        Object[] sourceItems = source.toArray();
+        Object[] targetItems = new Object[sourceItems.length];
+        if (pool == null || sourceItems.length <= sequentialThreshold) {
+            copyRange(sourceItems, targetItems, 0, sourceItems.length, targetFactory, copier);
+        } else {
+            int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, sourceItems.length / (pool.getParallelism() * 4));
+            pool.invoke(new CopyListTask<>(sourceItems, targetItems, 0, sourceItems.length, chunkSize, targetFactory, copier));
+        }
+        target.addAll((List<T>) Arrays.asList(targetItems));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> void copyRange(Object[] sourceItems, Object[] targetItems, int from, int to, Supplier<? extends T> targetFactory, BiConsumer<S, T> copier) {
+        for (int i = from; i < to; i++) {
+            T targetItem = null;
+            try {
+                targetItem = targetFactory.get();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            copier.accept((S) sourceItems[i], targetItem);
+            targetItems[i] = targetItem;
+        }
+    }
+
+    /**
+     * 列表并行复制任务，按下标范围二分拆分，每个目标对象写入与源元素相同下标的位置
+     */
+    private static class CopyListTask<S, T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] sourceItems;
+        private final Object[] targetItems;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Supplier<? extends T> targetFactory;
+        private final BiConsumer<S, T> copier;
+
+        CopyListTask(Object[] sourceItems, Object[] targetItems, int from, int to, int chunkSize, Supplier<? extends T> targetFactory, BiConsumer<S, T> copier) {
+            this.sourceItems = sourceItems;
+            this.targetItems = targetItems;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.targetFactory = targetFactory;
+            this.copier = copier;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                copyRange(sourceItems, targetItems, from, to, targetFactory, copier);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CopyListTask<>(sourceItems, targetItems, from, middle, chunkSize, targetFactory, copier),
+                    new CopyListTask<>(sourceItems, targetItems, middle, to, chunkSize, targetFactory, copier));
         }
+    }
+
+    /**
+     * 创建容量足够放下size个元素、不需要扩容的HashMap
+     */
+    private static Supplier<Map<String, Object>> hashMapFactory(int size) {
+        int initialCapacity = (int) (size / 0.75f) + 1;
+        return () -> new HashMap<>(initialCapacity);
+    }
+
+    private static List<String> filedNameFilter(List<String> allFields, List<String> ignoreFields, Collection<String> fieldsInMap, boolean ignoreOutOfMap) {
+        //转为HashSet，每个属性只需一次哈希查找
+        Set<String> ignoreFieldSet = ignoreFields == null || ignoreFields.isEmpty() ? Collections.emptySet() : new HashSet<>(ignoreFields);
+        Set<String> fieldInMapSet = null;
         if (ignoreOutOfMap && fieldsInMap != null && !fieldsInMap.isEmpty()) {
-            fieldsStream = fieldsStream.filter(fieldsInMap::contains);
+            fieldInMapSet = fieldsInMap instanceof Set ? (Set<String>) fieldsInMap : new HashSet<>(fieldsInMap);
+        }
+        List<String> fields = new ArrayList<>(allFields.size());
+        for (String fieldName : allFields) {
+            if (!ignoreFieldSet.contains(fieldName) && (fieldInMapSet == null || fieldInMapSet.contains(fieldName))) {
+                fields.add(fieldName);
+            }
         }
-        return fieldsStream.collect(Collectors.toList());
+        return fields;
     }
 
     private static void addFieldNameMap(Map<String, String> fieldNameMap, String sourceFieldName, String targetFieldName, boolean override) {
@@ -311,13 +434,13 @@ public class BeanFieldsUtils {
         }
     }
 
-    private static void sourceToTargetFieldsMapConvert(Map<String, String> fieldNameMap, List<String> sourceFieldsFilter, List<String> targetFieldsFilter, Map<String, String> sourceToTargetFieldsMap) {
+    private static void sourceToTargetFieldsMapConvert(Map<String, String> fieldNameMap, List<String> sourceFieldsFilter, Set<String> targetFieldSet, Map<String, String> sourceToTargetFieldsMap) {
         //将映射map中的映射关系存入map
         if (sourceToTargetFieldsMap != null && !sourceToTargetFieldsMap.isEmpty()) {
             for (String sourceFieldName : sourceFieldsFilter) {
                 if (sourceToTargetFieldsMap.containsKey(sourceFieldName)) {
                     String targetFieldName = sourceToTargetFieldsMap.get(sourceFieldName);
-                    if (targetFieldsFilter.contains(targetFieldName)) {
+                    if (targetFieldSet.contains(targetFieldName)) {
                         addFieldNameMap(fieldNameMap, sourceFieldName, targetFieldName, true);
                     }
                 }
@@ -337,7 +460,7 @@ public class BeanFieldsUtils {
         }
     }
 
-    private static void outOfMapConvert(Map<String, String> fieldNameMap, List<String> sourceFieldsFilter, List<String> targetFieldsFilter, boolean ignoreSame, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+    private static void outOfMapConvert(Map<String, String> fieldNameMap, List<String> sourceFieldsFilter, List<String> targetFieldsFilter, Set<String> targetFieldSet, boolean ignoreSame, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
         if (!ignoreOutOfMap) {
             //通过属性映射处理器将剩余符合条件的属性映射关系存入map
             if (fieldNameCompareHandler != null) {
@@ -352,7 +475,7 @@ public class BeanFieldsUtils {
             //将剩余的属性名一致的映射关系存入map
             if (!ignoreSame && fieldNameMap.size() < sourceFieldsFilter.size() && fieldNameMap.size() < targetFieldsFilter.size()) {
                 for (String sourceFieldName : sourceFieldsFilter) {
-                    if (targetFieldsFilter.contains(sourceFieldName)) {
+                    if (targetFieldSet.contains(sourceFieldName)) {
                         addFieldNameMap(fieldNameMap, sourceFieldName, sourceFieldName, false);
                     }
                 }
@@ -384,10 +507,11 @@ public class BeanFieldsUtils {
         Collection<String> targetFieldsInMap = sourceToTargetFieldsMap == null ? null : sourceToTargetFieldsMap.values();
         List<String> sourceFieldsFilter = filedNameFilter(sourceFields, ignoreSourceFields, sourceFieldsInMap, ignoreOutOfMap);
         List<String> targetFieldsFilter = filedNameFilter(targetFields, ignoreTargetFields, targetFieldsInMap, ignoreOutOfMap);
+        Set<String> targetFieldSet = new HashSet<>(targetFieldsFilter);
         //开始处理属性映射
         Map<String, String> fieldNameMap = new HashMap<>();
-        sourceToTargetFieldsMapConvert(fieldNameMap, sourceFieldsFilter, targetFieldsFilter, sourceToTargetFieldsMap);
-        outOfMapConvert(fieldNameMap, sourceFieldsFilter, targetFieldsFilter, ignoreSame, ignoreOutOfMap, fieldNameCompareHandler);
+        sourceToTargetFieldsMapConvert(fieldNameMap, sourceFieldsFilter, targetFieldSet, sourceToTargetFieldsMap);
+        outOfMapConvert(fieldNameMap, sourceFieldsFilter, targetFieldsFilter, targetFieldSet, ignoreSame, ignoreOutOfMap, fieldNameCompareHandler);
         return fieldNameMap;
     }
 
@@ -422,7 +546,36 @@ public class BeanFieldsUtils {
         return null;
     }
 
-    private static <S, T> Map<Field, Field> getFieldMap(Class<S> sourceClass, Class<T> targetClass, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+    /**
+     * 获取集合的元素类型
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> getElementType(Collection<T> collection) {
+        Class<?> elementType;
+        try {
+            elementType = getGenericType(collection, 0);
+        } catch (ClassCastException e) {
+            throw collectionGenericTypeNotFoundException();
+        }
+        if (elementType == null) {
+            throw collectionGenericTypeNotFoundException();
+        }
+        return (Class<T>) elementType;
+    }
+
+    /**
+     * 获取map的值类型
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> getValueType(Map<String, T> map) {
+        try {
+            return (Class<T>) getGenericType(map, 1);
+        } catch (ClassCastException e) {
+            throw mapGenericTypeNotFoundException();
+        }
+    }
+
+    static <S, T> Map<Field, Field> getFieldMap(Class<S> sourceClass, Class<T> targetClass, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
         if (sourceClass == null || targetClass == null) {
             return null;
         }
@@ -509,6 +662,66 @@ public class BeanFieldsUtils {
         return filedNameMapConvert(new ArrayList<>(sourceFieldNames), ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
     }
 
+    /**
+     * 获取对象->对象的映射计划，优先从缓存中获取；属性名处理器有实例字段时不使用缓存
+     */
+    static FieldMappingPlan getPlan(Class<?> sourceClass, Class<?> targetClass, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+        if (sourceClass == null || targetClass == null) {
+            return null;
+        }
+        if (!FieldMappingPlanCache.isCacheable(fieldNameCompareHandler)) {
+            return FieldMappingPlan.propertyToProperty(targetClass, getFieldMap(sourceClass, targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler));
+        }
+        FieldMappingPlanCache.Key key = FieldMappingPlanCache.lookupKey(sourceClass, targetClass, false, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
+        FieldMappingPlanCache.Key frozenKey;
+        try {
+            FieldMappingPlan plan = PLAN_CACHE.get(key);
+            if (plan != null) {
+                return plan;
+            }
+            //生成计划时会调用属性名处理器，处理器中再复制对象会复用当前线程的查询key，因此先复制key再释放
+            frozenKey = key.freeze();
+        } finally {
+            key.clear();
+        }
+        Map<Field, Field> fieldMap = getFieldMap(sourceClass, targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
+        return PLAN_CACHE.put(frozenKey, FieldMappingPlan.propertyToProperty(targetClass, fieldMap));
+    }
+
+    /**
+     * 获取对象->map的映射计划，优先从缓存中获取，map值类型不同时计划不同；属性名处理器有实例字段时不使用缓存
+     */
+    private static FieldMappingPlan getPlan(Class<?> sourceClass, Class<?> targetValueClass, boolean ignoreSame, List<String> ignoreSourceFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameConvertHandler fieldNameConvertHandler) {
+        if (sourceClass == null || targetValueClass == null) {
+            return null;
+        }
+        if (!FieldMappingPlanCache.isCacheable(fieldNameConvertHandler)) {
+            return FieldMappingPlan.propertyToKey(sourceClass, targetValueClass, getFieldMap(sourceClass, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler));
+        }
+        FieldMappingPlanCache.Key key = FieldMappingPlanCache.lookupKey(sourceClass, targetValueClass, true, ignoreSame, ignoreSourceFields, null, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+        FieldMappingPlanCache.Key frozenKey;
+        try {
+            FieldMappingPlan plan = PLAN_CACHE.get(key);
+            if (plan != null) {
+                return plan;
+            }
+            frozenKey = key.freeze();
+        } finally {
+            key.clear();
+        }
+        Map<String, Field> fieldMap = getFieldMap(sourceClass, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+        return PLAN_CACHE.put(frozenKey, FieldMappingPlan.propertyToKey(sourceClass, targetValueClass, fieldMap));
+    }
+
+    /**
+     * 获取映射计划缓存，可查看命中统计或清除缓存
+     *
+     * @return 映射计划缓存
+     */
+    public static FieldMappingPlanCache getPlanCache() {
+        return PLAN_CACHE;
+    }
+
     /**
      * 复制对象属性到对象属性
      * @param source 源对象
@@ -523,13 +736,31 @@ public class BeanFieldsUtils {
      * @param <T> 目标对象类型
      */
     public static <S, T> void copyPropertyToProperty(S source, T target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+        copyPropertyToProperty(source, target, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, defaultCopyEngine);
+    }
+
+    /**
+     * 复制对象属性到对象属性
+     * @param source 源对象
+     * @param target 目标对象
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源对象属性名
+     * @param ignoreTargetFields 忽略的目标对象属性名
+     * @param sourceToTargetFieldsMap 源对象属性名->目标对象属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameCompareHandler 属性名比较处理器
+     * @param copyEngine 复制方式
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyPropertyToProperty(S source, T target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, CopyEngine copyEngine) {
         if (source == null || target == null) {
             return;
         }
         Class<?> sourceClass = source.getClass();
         Class<?> targetClass = target.getClass();
-        Map<Field, Field> fieldMap = getFieldMap(sourceClass, targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
-        copyPropertyToProperty(source, target, fieldMap);
+        FieldMappingPlan plan = getPlan(sourceClass, targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
+        copyPropertyToProperty(source, target, plan, copyEngine);
     }
 
     /**
@@ -543,6 +774,18 @@ public class BeanFieldsUtils {
         copyPropertyToProperty(source, target, false, null, null, null, false, null);
     }
 
+    /**
+     * 复制对象属性到对象属性
+     * @param source 源对象
+     * @param target 目标对象
+     * @param copyEngine 复制方式
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyPropertyToProperty(S source, T target, CopyEngine copyEngine) {
+        copyPropertyToProperty(source, target, false, null, null, null, false, null, copyEngine);
+    }
+
     /**
      * 复制列表对象属性，到目标对象属后添加到列表中
      * @param source 源对象列表
@@ -557,27 +800,124 @@ public class BeanFieldsUtils {
      * @param <T> 目标对象类型
      */
     public static <S, T> void copyListPropertyToProperty(List<S> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+        copyListPropertyToProperty(source, target, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, defaultCopyEngine);
+    }
+
+    /**
+     * 复制列表对象属性，到目标对象属后添加到列表中
+     * @param source 源对象列表
+     * @param target 目标对象列表
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源对象属性名
+     * @param ignoreTargetFields 忽略的目标对象属性名
+     * @param sourceToTargetFieldsMap 源对象属性名->目标对象属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameCompareHandler 属性名比较处理器
+     * @param copyEngine 复制方式
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListPropertyToProperty(List<S> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, CopyEngine copyEngine) {
+        copyListPropertyToProperty(source, target, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, copyEngine, null, 0);
+    }
+
+    private static <S, T> void copyListPropertyToProperty(List<S> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, CopyEngine copyEngine, ForkJoinPool pool, int sequentialThreshold) {
         if (source == null || target == null || source.isEmpty()) {
             return;
         }
-        Class<?> sourceGenericType = getGenericType(source, 0);
-        Class<?> targetGenericType;
-        try {
-            targetGenericType = getGenericType(target, 0);
-        } catch (ClassCastException e) {
-            throw collectionGenericTypeNotFoundException();
-        }
-        Map<Field, Field> fieldMap = getFieldMap(sourceGenericType, targetGenericType, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
-        for (S sourceItem : source) {
-            T targetItem = null;
-            try {
-                targetItem = (T) targetGenericType.newInstance();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            copyPropertyToProperty(sourceItem, targetItem, fieldMap);
-            target.add(targetItem);
+        Class<T> targetClass = getElementType(target);
+        copyListPropertyToProperty(source, target, getElementType(source), targetClass, BeanInstantiator.of(targetClass), ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, copyEngine, pool, sequentialThreshold);
+    }
+
+    private static <S, T> void copyListPropertyToProperty(List<S> source, List<T> target, Class<? super S> sourceClass, Class<T> targetClass, Supplier<? extends T> targetFactory, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, CopyEngine copyEngine, ForkJoinPool pool, int sequentialThreshold) {
+        if (source == null || target == null || source.isEmpty()) {
+            return;
         }
+        FieldMappingPlan plan = getPlan(sourceClass, targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
+        copyList(source, target, targetFactory, (S sourceItem, T targetItem) -> copyPropertyToProperty(sourceItem, targetItem, plan, copyEngine), pool, sequentialThreshold);
+    }
+
+    /**
+     * 复制列表对象属性，到目标对象属后添加到列表中<br/>
+     * 显式指定元素类型，列表不需要是new ArrayList&lt;T&gt;(){}形式的匿名子类
+     * @param source 源对象列表
+     * @param target 目标对象列表
+     * @param sourceClass 源对象类型
+     * @param targetClass 目标对象类型，需要无参构造器
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListPropertyToProperty(List<S> source, List<T> target, Class<? super S> sourceClass, Class<T> targetClass) {
+        copyListPropertyToProperty(source, target, sourceClass, targetClass, BeanInstantiator.of(targetClass), false, null, null, null, false, null, defaultCopyEngine, null, 0);
+    }
+
+    /**
+     * 复制列表对象属性，到目标对象属后添加到列表中<br/>
+     * 显式指定元素类型和目标对象创建方法，列表不需要是new ArrayList&lt;T&gt;(){}形式的匿名子类
+     * @param source 源对象列表
+     * @param target 目标对象列表
+     * @param sourceClass 源对象类型
+     * @param targetClass 目标对象类型
+     * @param targetFactory 目标对象创建方法
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源对象属性名
+     * @param ignoreTargetFields 忽略的目标对象属性名
+     * @param sourceToTargetFieldsMap 源对象属性名->目标对象属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameCompareHandler 属性名比较处理器
+     * @param copyEngine 复制方式
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListPropertyToProperty(List<S> source, List<T> target, Class<? super S> sourceClass, Class<T> targetClass, Supplier<? extends T> targetFactory, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, CopyEngine copyEngine) {
+        copyListPropertyToProperty(source, target, sourceClass, targetClass, targetFactory, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, copyEngine, null, 0);
+    }
+
+    /**
+     * 并行复制列表对象属性，到目标对象属后添加到列表中，目标列表中的顺序与源列表一致<br/>
+     * 使用ForkJoinPool.commonPool()，源列表元素数量不超过DEFAULT_PARALLEL_THRESHOLD时在当前线程复制
+     * @param source 源对象列表
+     * @param target 目标对象列表
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListPropertyToPropertyParallel(List<S> source, List<T> target) {
+        copyListPropertyToPropertyParallel(source, target, false, null, null, null, false, null, defaultCopyEngine, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行复制列表对象属性，到目标对象属后添加到列表中，目标列表中的顺序与源列表一致<br/>
+     * 映射计划只解析一次，源列表拆分为多段在pool中复制
+     * @param source 源对象列表
+     * @param target 目标对象列表
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源对象属性名
+     * @param ignoreTargetFields 忽略的目标对象属性名
+     * @param sourceToTargetFieldsMap 源对象属性名->目标对象属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameCompareHandler 属性名比较处理器
+     * @param copyEngine 复制方式
+     * @param pool 线程池，为null时在当前线程复制
+     * @param sequentialThreshold 源列表元素数量不超过该值时在当前线程复制
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListPropertyToPropertyParallel(List<S> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, CopyEngine copyEngine, ForkJoinPool pool, int sequentialThreshold) {
+        copyListPropertyToProperty(source, target, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, copyEngine, pool, sequentialThreshold);
+    }
+
+    /**
+     * 并行复制列表对象属性，到目标对象属后添加到列表中，目标列表中的顺序与源列表一致<br/>
+     * 显式指定元素类型，使用ForkJoinPool.commonPool()，源列表元素数量不超过DEFAULT_PARALLEL_THRESHOLD时在当前线程复制
+     * @param source 源对象列表
+     * @param target 目标对象列表
+     * @param sourceClass 源对象类型
+     * @param targetClass 目标对象类型，需要无参构造器
+     * @param <S> 源对象类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListPropertyToPropertyParallel(List<S> source, List<T> target, Class<? super S> sourceClass, Class<T> targetClass) {
+        copyListPropertyToProperty(source, target, sourceClass, targetClass, BeanInstantiator.of(targetClass), false, null, null, null, false, null, defaultCopyEngine, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
     }
 
     /**
@@ -608,9 +948,43 @@ public class BeanFieldsUtils {
         if (source == null || target == null) {
             return;
         }
-        Class<?> sourceClass = source.getClass();
-        Map<String, Field> fieldMap = getFieldMap(sourceClass, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
-        copyPropertyToKey(source, target, fieldMap);
+        copyPropertyToKey(source, target, getValueType(target), ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+    }
+
+    /**
+     * 复制对象属性到map的属性值<br/>
+     * 显式指定map的值类型，map不需要是new HashMap&lt;K,V&gt;(){}形式的匿名子类
+     * @param source 源对象
+     * @param target 目标map
+     * @param targetValueClass 目标map值类型
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源对象属性名
+     * @param ignoreTargetFields 忽略的目标map属性名
+     * @param sourceToTargetFieldsMap 源对象属性名->目标map属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameConvertHandler 属性名转换处理器
+     * @param <S> 源对象类型
+     * @param <T> 目标map值类型
+     */
+    public static <S, T> void copyPropertyToKey(S source, Map<String, T> target, Class<T> targetValueClass, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameConvertHandler fieldNameConvertHandler) {
+        if (source == null || target == null) {
+            return;
+        }
+        FieldMappingPlan plan = getPlan(source.getClass(), targetValueClass, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+        copyPropertyToKey(source, target, plan);
+    }
+
+    /**
+     * 复制对象属性到map的属性值<br/>
+     * 显式指定map的值类型，map不需要是new HashMap&lt;K,V&gt;(){}形式的匿名子类
+     * @param source 源对象
+     * @param target 目标map
+     * @param targetValueClass 目标map值类型
+     * @param <S> 源对象类型
+     * @param <T> 目标map值类型
+     */
+    public static <S, T> void copyPropertyToKey(S source, Map<String, T> target, Class<T> targetValueClass) {
+        copyPropertyToKey(source, target, targetValueClass, false, null, null, null, false, null);
     }
 
     /**
@@ -639,19 +1013,42 @@ public class BeanFieldsUtils {
         if (source == null || target == null || source.isEmpty()) {
             return;
         }
-        Class<?> sourceClass;
-        try {
-            sourceClass = getGenericType(source, 0);
-        } catch (ClassCastException e) {
-            throw collectionGenericTypeNotFoundException();
-        }
-        Map<String, Field> fieldMap = getFieldMap(sourceClass, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
-        for (S sourceItem : source) {
-            HashMap<String, Object> targetItem = new HashMap<String, Object>() {
-            };
-            copyPropertyToKey(sourceItem, targetItem, fieldMap);
-            target.add(targetItem);
+        copyListPropertyToKey(source, target, getElementType(source), null, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+    }
+
+    /**
+     * 复制列表对象属性，到map的属性值，并将map添加到列表中<br/>
+     * 显式指定源对象类型和目标map创建方法，列表不需要是new ArrayList&lt;T&gt;(){}形式的匿名子类
+     * @param source 源对象列表
+     * @param target 目标map列表
+     * @param sourceClass 源对象类型
+     * @param targetFactory 目标map创建方法，为null时按属性数量创建HashMap
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源对象属性名
+     * @param sourceToTargetFieldsMap 源对象属性名->目标map属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameConvertHandler 属性名转换处理器
+     * @param <S> 源对象类型
+     */
+    public static <S> void copyListPropertyToKey(List<S> source, List<Map<String, Object>> target, Class<? super S> sourceClass, Supplier<? extends Map<String, Object>> targetFactory, boolean ignoreSame, List<String> ignoreSourceFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameConvertHandler fieldNameConvertHandler) {
+        if (source == null || target == null || source.isEmpty()) {
+            return;
         }
+        FieldMappingPlan plan = getPlan(sourceClass, Object.class, ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+        Supplier<? extends Map<String, Object>> mapFactory = targetFactory == null ? hashMapFactory(plan.entries.length) : targetFactory;
+        copyList(source, target, mapFactory, (S sourceItem, Map<String, Object> targetItem) -> copyPropertyToKey(sourceItem, targetItem, plan), null, 0);
+    }
+
+    /**
+     * 复制列表对象属性，到map的属性值，并将map添加到列表中<br/>
+     * 显式指定源对象类型，列表不需要是new ArrayList&lt;T&gt;(){}形式的匿名子类
+     * @param source 源对象列表
+     * @param target 目标map列表
+     * @param sourceClass 源对象类型
+     * @param <S> 源对象类型
+     */
+    public static <S> void copyListPropertyToKey(List<S> source, List<Map<String, Object>> target, Class<? super S> sourceClass) {
+        copyListPropertyToKey(source, target, sourceClass, null, false, null, null, false, null);
     }
 
     /**
@@ -683,7 +1080,7 @@ public class BeanFieldsUtils {
         }
         Class<?> targetClass = target.getClass();
         Map<Field, String> fieldMap = getFieldMap(source.keySet(), targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
-        copyKeyToProperty(source, target, fieldMap);
+        copyKeyToProperty(source, target, FieldMappingPlan.keyToProperty(fieldMap));
     }
 
     /**
@@ -711,6 +1108,10 @@ public class BeanFieldsUtils {
      * @param <T> 目标对象类型
      */
     public static <S, T> void copyListKeyToProperty(List<Map<String, S>> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+        copyListKeyToProperty(source, target, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, null, 0);
+    }
+
+    private static <S, T> void copyListKeyToProperty(List<Map<String, S>> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, ForkJoinPool pool, int sequentialThreshold) {
         if (source == null || source.isEmpty() || target == null) {
             return;
         }
@@ -718,23 +1119,99 @@ public class BeanFieldsUtils {
         if (sourceItem == null || sourceItem.isEmpty()) {
             return;
         }
-        Class<?> targetClass;
-        try {
-            targetClass = getGenericType(target, 0);
-        } catch (ClassCastException e) {
-            throw collectionGenericTypeNotFoundException();
+        Class<T> targetClass = getElementType(target);
+        copyListKeyToProperty(source, target, targetClass, BeanInstantiator.of(targetClass), ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, pool, sequentialThreshold);
+    }
+
+    private static <S, T> void copyListKeyToProperty(List<Map<String, S>> source, List<T> target, Class<T> targetClass, Supplier<? extends T> targetFactory, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, ForkJoinPool pool, int sequentialThreshold) {
+        if (source == null || source.isEmpty() || target == null) {
+            return;
         }
-        Map<Field, String> fieldMap = getFieldMap(sourceItem.keySet(), targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
-        for (Map<String, S> sourceTemp : source) {
-            T targetItem = null;
-            try {
-                targetItem = (T) targetClass.newInstance();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            copyKeyToProperty(sourceTemp, targetItem, fieldMap);
-            target.add(targetItem);
+        Map<String, S> sourceItem = source.get(0);
+        if (sourceItem == null || sourceItem.isEmpty()) {
+            return;
         }
+        Map<Field, String> fieldMap = getFieldMap(sourceItem.keySet(), targetClass, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler);
+        FieldMappingPlan plan = FieldMappingPlan.keyToProperty(fieldMap);
+        copyList(source, target, targetFactory, (Map<String, S> sourceTemp, T targetItem) -> copyKeyToProperty(sourceTemp, targetItem, plan), pool, sequentialThreshold);
+    }
+
+    /**
+     * 复制列表map的属性值，到目标对象属后添加到列表中<br/>
+     * 显式指定目标对象类型和创建方法，列表不需要是new ArrayList&lt;T&gt;(){}形式的匿名子类
+     * @param source 源map列表
+     * @param target 目标对象列表
+     * @param targetClass 目标对象类型
+     * @param targetFactory 目标对象创建方法
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源map属性名
+     * @param ignoreTargetFields 忽略的目标对象属性名
+     * @param sourceToTargetFieldsMap 源map属性名->目标对象属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameCompareHandler 属性名比较处理器
+     * @param <S> 源map值类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListKeyToProperty(List<Map<String, S>> source, List<T> target, Class<T> targetClass, Supplier<? extends T> targetFactory, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler) {
+        copyListKeyToProperty(source, target, targetClass, targetFactory, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, null, 0);
+    }
+
+    /**
+     * 复制列表map的属性值，到目标对象属后添加到列表中<br/>
+     * 显式指定目标对象类型，列表不需要是new ArrayList&lt;T&gt;(){}形式的匿名子类
+     * @param source 源map列表
+     * @param target 目标对象列表
+     * @param targetClass 目标对象类型，需要无参构造器
+     * @param <S> 源map值类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListKeyToProperty(List<Map<String, S>> source, List<T> target, Class<T> targetClass) {
+        copyListKeyToProperty(source, target, targetClass, BeanInstantiator.of(targetClass), false, null, null, null, false, null, null, 0);
+    }
+
+    /**
+     * 并行复制列表map的属性值，到目标对象属后添加到列表中，目标列表中的顺序与源列表一致<br/>
+     * 使用ForkJoinPool.commonPool()，源列表元素数量不超过DEFAULT_PARALLEL_THRESHOLD时在当前线程复制
+     * @param source 源map列表
+     * @param target 目标对象列表
+     * @param <S> 源map值类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListKeyToPropertyParallel(List<Map<String, S>> source, List<T> target) {
+        copyListKeyToPropertyParallel(source, target, false, null, null, null, false, null, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 并行复制列表map的属性值，到目标对象属后添加到列表中，目标列表中的顺序与源列表一致<br/>
+     * 映射计划只按第一个map解析一次，源列表拆分为多段在pool中复制
+     * @param source 源map列表
+     * @param target 目标对象列表
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源map属性名
+     * @param ignoreTargetFields 忽略的目标对象属性名
+     * @param sourceToTargetFieldsMap 源map属性名->目标对象属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameCompareHandler 属性名比较处理器
+     * @param pool 线程池，为null时在当前线程复制
+     * @param sequentialThreshold 源列表元素数量不超过该值时在当前线程复制
+     * @param <S> 源map值类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListKeyToPropertyParallel(List<Map<String, S>> source, List<T> target, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameCompareHandler fieldNameCompareHandler, ForkJoinPool pool, int sequentialThreshold) {
+        copyListKeyToProperty(source, target, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameCompareHandler, pool, sequentialThreshold);
+    }
+
+    /**
+     * 并行复制列表map的属性值，到目标对象属后添加到列表中，目标列表中的顺序与源列表一致<br/>
+     * 显式指定目标对象类型，使用ForkJoinPool.commonPool()，源列表元素数量不超过DEFAULT_PARALLEL_THRESHOLD时在当前线程复制
+     * @param source 源map列表
+     * @param target 目标对象列表
+     * @param targetClass 目标对象类型，需要无参构造器
+     * @param <S> 源map值类型
+     * @param <T> 目标对象类型
+     */
+    public static <S, T> void copyListKeyToPropertyParallel(List<Map<String, S>> source, List<T> target, Class<T> targetClass) {
+        copyListKeyToProperty(source, target, targetClass, BeanInstantiator.of(targetClass), false, null, null, null, false, null, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
     }
 
     /**
@@ -766,7 +1243,46 @@ public class BeanFieldsUtils {
             return;
         }
         Map<String, String> fieldMap = getFieldMap(source.keySet(), ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
-        copyKeyToKey(source, target, fieldMap);
+        if (fieldMap.isEmpty()) {
+            return;
+        }
+        copyKeyToKey(source, target, fieldMap, getValueType(target));
+    }
+
+    /**
+     * 复制map的属性值，到map的属性值<br/>
+     * 显式指定目标map的值类型，map不需要是new HashMap&lt;K,V&gt;(){}形式的匿名子类
+     * @param source 源map
+     * @param target 目标map
+     * @param targetValueClass 目标map值类型
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源map属性名
+     * @param ignoreTargetFields 忽略的目标map属性名
+     * @param sourceToTargetFieldsMap 源map属性名->目标map属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameConvertHandler 属性名转换处理器
+     * @param <S> 源map值类型
+     * @param <T> 目标map值类型
+     */
+    public static <S, T> void copyKeyToKey(Map<String, S> source, Map<String, T> target, Class<T> targetValueClass, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameConvertHandler fieldNameConvertHandler) {
+        if (source == null || source.isEmpty() || target == null) {
+            return;
+        }
+        Map<String, String> fieldMap = getFieldMap(source.keySet(), ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+        copyKeyToKey(source, target, fieldMap, targetValueClass);
+    }
+
+    /**
+     * 复制map的属性值，到map的属性值<br/>
+     * 显式指定目标map的值类型，map不需要是new HashMap&lt;K,V&gt;(){}形式的匿名子类
+     * @param source 源map
+     * @param target 目标map
+     * @param targetValueClass 目标map值类型
+     * @param <S> 源map值类型
+     * @param <T> 目标map值类型
+     */
+    public static <S, T> void copyKeyToKey(Map<String, S> source, Map<String, T> target, Class<T> targetValueClass) {
+        copyKeyToKey(source, target, targetValueClass, false, null, null, null, false, null);
     }
 
     /**
@@ -800,13 +1316,33 @@ public class BeanFieldsUtils {
         if (sourceItem == null || sourceItem.isEmpty()) {
             return;
         }
-        Map<String, String> fieldMap = getFieldMap(sourceItem.keySet(), ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
-        for (Map<String, S> sourceTemp : source) {
-            Map<String, Object> targetItem = new HashMap<String, Object>() {
-            };
-            copyKeyToKey(sourceTemp, targetItem, fieldMap);
-            target.add(targetItem);
+        copyListKeyToKey(source, target, null, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+    }
+
+    /**
+     * 复制列表map的属性值，到map的属性值，并将map添加到列表中
+     * @param source 源map列表
+     * @param target 目标map列表
+     * @param targetFactory 目标map创建方法，为null时按属性数量创建HashMap
+     * @param ignoreSame 是否忽略属性名一致的属性
+     * @param ignoreSourceFields 忽略的源map属性名
+     * @param ignoreTargetFields 忽略的目标map属性名
+     * @param sourceToTargetFieldsMap 源map属性名->目标map属性名的映射
+     * @param ignoreOutOfMap 是否忽略映射外的属性
+     * @param fieldNameConvertHandler 属性名转换处理器
+     * @param <S> 源map值类型
+     */
+    public static <S> void copyListKeyToKey(List<Map<String, S>> source, List<Map<String, Object>> target, Supplier<? extends Map<String, Object>> targetFactory, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, FieldNameConvertHandler fieldNameConvertHandler) {
+        if (source == null || source.isEmpty() || target == null) {
+            return;
         }
+        Map<String, S> sourceItem = source.get(0);
+        if (sourceItem == null || sourceItem.isEmpty()) {
+            return;
+        }
+        Map<String, String> fieldMap = getFieldMap(sourceItem.keySet(), ignoreSame, ignoreSourceFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameConvertHandler);
+        Supplier<? extends Map<String, Object>> mapFactory = targetFactory == null ? hashMapFactory(fieldMap.size()) : targetFactory;
+        copyList(source, target, mapFactory, (Map<String, S> sourceTemp, Map<String, Object> targetItem) -> copyKeyToKey(sourceTemp, targetItem, fieldMap, Object.class), null, 0);
     }
 
     /**
@@ -0,0 +1,75 @@
+package com.liujun.utils;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * 目标对象创建器<br/>
+ * 每个类只查找一次无参构造器，public构造器通过LambdaMetafactory生成直接调用构造器的Supplier，其他构造器使用反射<br/>
+ * 代替已过时的Class.newInstance
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class BeanInstantiator {
+
+    private static final ClassValue<Supplier<Object>> FACTORIES = new ClassValue<Supplier<Object>>() {
+        @Override
+        protected Supplier<Object> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private BeanInstantiator() {
+    }
+
+    /**
+     * 获取类的创建器
+     *
+     * @param type 类型
+     * @param <T>  类型
+     * @return 创建器，创建失败时抛出IllegalStateException
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> of(Class<T> type) {
+        return (Supplier<T>) FACTORIES.get(type);
+    }
+
+    private static Supplier<Object> create(Class<?> type) {
+        Constructor<?> constructor;
+        try {
+            if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+                throw new NoSuchMethodException(type.getName() + "为接口或抽象类");
+            }
+            constructor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            return () -> {
+                throw new IllegalStateException("无法创建" + type.getName() + "对象，需要无参构造器", e);
+            };
+        }
+        if (Modifier.isPublic(constructor.getModifiers()) && LambdaPropertyCopier.isAccessible(type)) {
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor);
+                return LambdaPropertyCopier.lambda(Supplier.class, "get", MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+            } catch (IllegalAccessException | LambdaConversionException ignored) {
+                //生成失败时使用反射
+            }
+        }
+        constructor.setAccessible(true);
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("创建" + type.getName() + "对象失败", e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("创建" + type.getName() + "对象失败", e);
+            }
+        };
+    }
+}
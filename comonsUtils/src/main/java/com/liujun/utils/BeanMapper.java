@@ -0,0 +1,170 @@
+package com.liujun.utils;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 流式对象映射器<br/>
+ * 创建时解析一次映射计划，之后对Stream、Iterator、Spliterator中的元素逐个创建目标对象并复制属性，
+ * 不需要把源数据和结果放入List，内存占用与元素数量无关，下游可以立即开始消费<br/>
+ * 不可变，线程安全<br/>
+ * 创建时确定各属性的类型转换器，之后再注册的转换器(BeanFieldsUtils.registerConverter)对已创建的实例不生效
+ * <pre>
+ * BeanMapper&lt;PersonA, PersonB&gt; mapper = BeanMapper.of(PersonA.class, PersonB.class);
+ * Stream&lt;PersonB&gt; personBStream = mapper.map(personAStream);
+ * </pre>
+ *
+ * @param <S> 源对象类型
+ * @param <T> 目标对象类型
+ * @author liujun
+ * @date 2026/10/18
+ */
+public final class BeanMapper<S, T> implements Function<S, T> {
+
+    private final FieldMappingPlan plan;
+
+    private final Supplier<T> targetFactory;
+
+    private final BeanFieldsUtils.CopyEngine copyEngine;
+
+    BeanMapper(FieldMappingPlan plan, Supplier<T> targetFactory, BeanFieldsUtils.CopyEngine copyEngine) {
+        this.plan = plan;
+        this.targetFactory = targetFactory;
+        this.copyEngine = copyEngine;
+    }
+
+    /**
+     * 创建映射器，复制属性名一致的属性，使用全局默认的复制方式
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型，需要无参构造器
+     * @param <S>         源对象类型
+     * @param <T>         目标对象类型
+     * @return 映射器
+     */
+    public static <S, T> BeanMapper<S, T> of(Class<S> sourceClass, Class<T> targetClass) {
+        return of(sourceClass, targetClass, BeanFieldsUtils.getDefaultCopyEngine());
+    }
+
+    /**
+     * 创建映射器，复制属性名一致的属性
+     *
+     * @param sourceClass 源类型
+     * @param targetClass 目标类型，需要无参构造器
+     * @param copyEngine  复制方式
+     * @param <S>         源对象类型
+     * @param <T>         目标对象类型
+     * @return 映射器
+     */
+    public static <S, T> BeanMapper<S, T> of(Class<S> sourceClass, Class<T> targetClass, BeanFieldsUtils.CopyEngine copyEngine) {
+        Objects.requireNonNull(sourceClass, "sourceClass");
+        Objects.requireNonNull(targetClass, "targetClass");
+        FieldMappingPlan plan = BeanFieldsUtils.getPlan(sourceClass, targetClass, false, null, null, null, false, null);
+        return new BeanMapper<>(plan, BeanInstantiator.of(targetClass), copyEngine == null ? BeanFieldsUtils.CopyEngine.REFLECT : copyEngine);
+    }
+
+    /**
+     * 映射单个对象
+     *
+     * @param source 源对象
+     * @return 新建的目标对象，源对象为null时返回null
+     */
+    @Override
+    public T apply(S source) {
+        if (source == null) {
+            return null;
+        }
+        T target = targetFactory.get();
+        BeanFieldsUtils.copyPropertyToProperty(source, target, plan, copyEngine);
+        return target;
+    }
+
+    /**
+     * 惰性映射Stream，终止操作执行时才逐个映射，保持源Stream的并行属性
+     *
+     * @param source 源Stream
+     * @return 目标Stream
+     */
+    public Stream<T> map(Stream<? extends S> source) {
+        return source.map(this);
+    }
+
+    /**
+     * 惰性映射Iterator，每次next时映射一个元素
+     *
+     * @param source 源Iterator
+     * @return 目标Iterator
+     */
+    public Iterator<T> map(Iterator<? extends S> source) {
+        Objects.requireNonNull(source, "source");
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return apply(source.next());
+            }
+
+            @Override
+            public void remove() {
+                source.remove();
+            }
+        };
+    }
+
+    /**
+     * 惰性映射Spliterator，支持拆分后并行遍历
+     *
+     * @param source 源Spliterator
+     * @return 目标Spliterator
+     */
+    public Spliterator<T> map(Spliterator<? extends S> source) {
+        Objects.requireNonNull(source, "source");
+        return new MappingSpliterator<>(source, this);
+    }
+
+    private static final class MappingSpliterator<S, T> implements Spliterator<T> {
+        private final Spliterator<? extends S> source;
+        private final Function<S, T> mapper;
+
+        MappingSpliterator(Spliterator<? extends S> source, Function<S, T> mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return source.tryAdvance(item -> action.accept(mapper.apply(item)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            source.forEachRemaining(item -> action.accept(mapper.apply(item)));
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<? extends S> prefix = source.trySplit();
+            return prefix == null ? null : new MappingSpliterator<>(prefix, mapper);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            //映射后不再有序比较、去重，源元素为null时结果也为null
+            return source.characteristics() & ~(DISTINCT | SORTED | NONNULL);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.liujun.utils;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 缓存的树元素索引<br/>
+ * 查询只在取得索引时持有读锁，遍历索引、调用getNode等回调时不持有锁；增量修改和重新加载持有写锁<br/>
+ * 有查询正在遍历索引时，增量修改在副本上进行后替换(写时复制)，正在进行的查询继续使用修改前的索引；
+ * 超过有效期或数据版本变化时，下次查询重新加载
+ *
+ * @param <T> 实体类
+ * @param <P> 主键类
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class CachedTreeIndex<T, P> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Snapshot<T, P> current;
+
+    private long loadedAt;
+
+    private Object version;
+
+    /**
+     * 使用缓存的索引查询，索引未加载、已过期或版本变化时先重新加载
+     *
+     * @param loader     加载索引
+     * @param ttlMillis  有效期(毫秒)，小于等于0时不过期
+     * @param version    当前数据版本，为null时不检查版本
+     * @param reader     查询，执行时不持有锁，可以调用update
+     * @return 查询结果
+     */
+    <R> R read(Supplier<TreeEntityIndex<T, P>> loader, long ttlMillis, Object version, Function<TreeEntityIndex<T, P>, R> reader) {
+        Snapshot<T, P> snapshot = acquire(loader, ttlMillis, version);
+        try {
+            return reader.apply(snapshot.index);
+        } finally {
+            snapshot.readers.decrementAndGet();
+        }
+    }
+
+    /**
+     * 取得当前索引并登记查询，查询结束后需减少readers
+     */
+    private Snapshot<T, P> acquire(Supplier<TreeEntityIndex<T, P>> loader, long ttlMillis, Object version) {
+        lock.readLock().lock();
+        try {
+            if (isFresh(ttlMillis, version)) {
+                current.readers.incrementAndGet();
+                return current;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!isFresh(ttlMillis, version)) {
+                current = new Snapshot<>(loader.get());
+                loadedAt = System.nanoTime();
+                this.version = version;
+            }
+            current.readers.incrementAndGet();
+            return current;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFresh(long ttlMillis, Object version) {
+        if (current == null) {
+            return false;
+        }
+        if (ttlMillis > 0 && System.nanoTime() - loadedAt > TimeUnit.MILLISECONDS.toNanos(ttlMillis)) {
+            return false;
+        }
+        return version == null || Objects.equals(version, this.version);
+    }
+
+    /**
+     * 增量修改已加载的索引，未加载时忽略
+     *
+     * @param patch 修改
+     */
+    void update(Consumer<TreeEntityIndex<T, P>> patch) {
+        lock.writeLock().lock();
+        try {
+            if (current == null) {
+                return;
+            }
+            //持有写锁时不会有新的查询取得current，readers为0时可以直接修改
+            if (current.readers.get() > 0) {
+                Snapshot<T, P> copy = new Snapshot<>(current.index.copy());
+                patch.accept(copy.index);
+                current = copy;
+            } else {
+                patch.accept(current.index);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 清除索引，下次查询重新加载
+     */
+    void invalidate() {
+        lock.writeLock().lock();
+        try {
+            current = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引及正在使用它的查询数
+     */
+    private static final class Snapshot<T, P> {
+        private final TreeEntityIndex<T, P> index;
+        private final AtomicInteger readers = new AtomicInteger();
+
+        private Snapshot(TreeEntityIndex<T, P> index) {
+            this.index = index;
+        }
+    }
+}
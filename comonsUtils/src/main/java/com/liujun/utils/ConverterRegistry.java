@@ -0,0 +1,401 @@
+package com.liujun.utils;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 类型转换器注册表<br/>
+ * 按(源类型, 目标类型)解析出具体的转换器并缓存，之后每次转换只需一次方法调用<br/>
+ * 解析顺序: 可直接赋值 -> 注册的转换器(含源类型的父类、接口) -> 按运行时类型动态解析 -> 转字符串 -> 不支持(返回null)<br/>
+ * 基本类型按包装类处理
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class ConverterRegistry {
+
+    /**
+     * 类型转换器<br/>
+     * lambda表达式: 源值(不为null) -> 目标值，无法转换时返回null
+     *
+     * @param <S> 源类型
+     * @param <T> 目标类型
+     */
+    public interface Converter<S, T> {
+        /**
+         * 类型转换
+         *
+         * @param source 源值，不为null
+         * @return 目标值，无法转换时返回null
+         */
+        T convert(S source);
+    }
+
+    /**
+     * 原样返回
+     */
+    private static final Converter<Object, Object> IDENTITY = source -> source;
+
+    /**
+     * 转为字符串
+     */
+    private static final Converter<Object, Object> TO_STRING = String::valueOf;
+
+    /**
+     * 不支持的转换
+     */
+    private static final Converter<Object, Object> UNSUPPORTED = source -> null;
+
+    private static final ConverterRegistry DEFAULT = new ConverterRegistry();
+
+    private final ConcurrentHashMap<ConvertKey, Converter<Object, Object>> registered = new ConcurrentHashMap<>();
+
+    /**
+     * 解析结果缓存，注册转换器时整体替换为新的map；解析时只写入开始解析前读取的map，
+     * 与注册并发的解析结果随旧map一起丢弃
+     */
+    private volatile ConcurrentHashMap<ConvertKey, Converter<Object, Object>> resolved = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 内置的转换器，构造后不再修改
+     */
+    private final Set<Converter<Object, Object>> defaults = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public ConverterRegistry() {
+        registerDefaults();
+        defaults.addAll(registered.values());
+    }
+
+    /**
+     * 获取默认注册表，BeanFieldsUtils使用该注册表
+     *
+     * @return 默认注册表
+     */
+    public static ConverterRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 注册转换器，覆盖同一(源类型, 目标类型)已有的转换器<br/>
+     * 注册后版本加1，BeanFieldsUtils缓存的映射计划随之过期；已创建的BeanCopier、BeanMapper仍使用创建时的转换器
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param converter  转换器
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     * @return 当前注册表
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> ConverterRegistry register(Class<S> sourceType, Class<T> targetType, Converter<? super S, ? extends T> converter) {
+        Objects.requireNonNull(converter, "converter");
+        registered.put(new ConvertKey(wrap(sourceType), wrap(targetType)), (Converter<Object, Object>) converter);
+        resolved = new ConcurrentHashMap<>();
+        version.incrementAndGet();
+        return this;
+    }
+
+    /**
+     * @return 版本，每次注册转换器加1，用于判断根据注册表生成的结果是否过期
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 解析(源类型, 目标类型)对应的转换器，结果会被缓存
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return 转换器，不支持的转换返回null值
+     */
+    public Converter<Object, Object> resolve(Class<?> sourceType, Class<?> targetType) {
+        ConcurrentHashMap<ConvertKey, Converter<Object, Object>> cache = resolved;
+        ConvertKey key = new ConvertKey(sourceType, targetType);
+        Converter<Object, Object> converter = cache.get(key);
+        if (converter == null) {
+            converter = resolve(sourceType, targetType, true);
+            cache.putIfAbsent(key, converter);
+        }
+        return converter;
+    }
+
+    /**
+     * 判断(源类型, 目标类型)是否使用注册的非内置转换器，BeanFieldsUtils据此决定能否跳过转换器直接解析字符串
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return 查找到的注册转换器不是内置转换器时返回true
+     */
+    boolean isCustomized(Class<?> sourceType, Class<?> targetType) {
+        Converter<Object, Object> converter = findRegistered(wrap(sourceType), wrap(targetType));
+        return converter != null && !defaults.contains(converter);
+    }
+
+    /**
+     * 按值的运行时类型转换
+     *
+     * @param source     源值
+     * @param targetType 目标类型
+     * @param <T>        目标类型
+     * @return 目标值，无法转换时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object source, Class<T> targetType) {
+        if (source == null || targetType == null) {
+            return null;
+        }
+        return (T) resolve(source.getClass(), targetType).convert(source);
+    }
+
+    private Converter<Object, Object> resolve(Class<?> sourceType, Class<?> targetType, boolean allowDynamic) {
+        Class<?> source = wrap(sourceType);
+        Class<?> target = wrap(targetType);
+        //同类型，可强制转换的类型
+        if (target.isAssignableFrom(source)) {
+            return IDENTITY;
+        }
+        Converter<Object, Object> converter = findRegistered(source, target);
+        if (converter != null) {
+            return converter;
+        }
+        //声明类型不确定时(如Object)，按值的运行时类型解析，如Object值为Date时按日期格式转字符串
+        if (allowDynamic && !Modifier.isFinal(source.getModifiers())) {
+            return new DynamicConverter(target);
+        }
+        //? -> string
+        if (target.isAssignableFrom(String.class)) {
+            return TO_STRING;
+        }
+        return UNSUPPORTED;
+    }
+
+    /**
+     * 从源类型开始，依次查找父类、接口注册的转换器
+     */
+    private Converter<Object, Object> findRegistered(Class<?> source, Class<?> target) {
+        Deque<Class<?>> types = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        types.add(source);
+        while (!types.isEmpty()) {
+            Class<?> type = types.poll();
+            if (!visited.add(type)) {
+                continue;
+            }
+            Converter<Object, Object> converter = registered.get(new ConvertKey(type, target));
+            if (converter != null) {
+                return converter;
+            }
+            if (type.getSuperclass() != null) {
+                types.add(type.getSuperclass());
+            }
+            for (Class<?> anInterface : type.getInterfaces()) {
+                types.add(anInterface);
+            }
+        }
+        return null;
+    }
+
+    private void registerDefaults() {
+        //string -> ?
+        register(String.class, Byte.class, Byte::valueOf);
+        register(String.class, Short.class, Short::valueOf);
+        register(String.class, Integer.class, Integer::valueOf);
+        register(String.class, Long.class, Long::valueOf);
+        register(String.class, Float.class, Float::valueOf);
+        register(String.class, Double.class, Double::valueOf);
+        register(String.class, BigInteger.class, BigInteger::new);
+        register(String.class, BigDecimal.class, BigDecimal::new);
+        register(String.class, Character.class, source -> source.isEmpty() ? null : source.charAt(0));
+        register(String.class, Boolean.class, ConverterRegistry::parseBoolean);
+        //number -> number
+        register(Number.class, Byte.class, Number::byteValue);
+        register(Number.class, Short.class, Number::shortValue);
+        register(Number.class, Integer.class, Number::intValue);
+        register(Number.class, Long.class, Number::longValue);
+        register(Number.class, Float.class, Number::floatValue);
+        register(Number.class, Double.class, Number::doubleValue);
+        register(Number.class, BigInteger.class, source -> new BigDecimal(source.toString()).toBigInteger());
+        register(Number.class, BigDecimal.class, source -> new BigDecimal(source.toString()));
+        //date <-> java.time
+        register(Date.class, Instant.class, source -> Instant.ofEpochMilli(source.getTime()));
+        register(Date.class, LocalDateTime.class, source -> LocalDateTime.ofInstant(Instant.ofEpochMilli(source.getTime()), DateFormatUtils.getZone()));
+        register(Date.class, LocalDate.class, source -> LocalDateTime.ofInstant(Instant.ofEpochMilli(source.getTime()), DateFormatUtils.getZone()).toLocalDate());
+        register(Date.class, Long.class, Date::getTime);
+        register(Instant.class, Date.class, Date::from);
+        register(LocalDateTime.class, Date.class, source -> Date.from(source.atZone(DateFormatUtils.getZone()).toInstant()));
+        register(LocalDate.class, Date.class, source -> Date.from(source.atStartOfDay(DateFormatUtils.getZone()).toInstant()));
+        register(LocalDateTime.class, LocalDate.class, LocalDateTime::toLocalDate);
+        register(LocalDate.class, LocalDateTime.class, LocalDate::atStartOfDay);
+        register(Long.class, Date.class, Date::new);
+        //string <-> date，使用DateFormatUtils的全局默认格式
+        register(String.class, Date.class, source -> DateFormatUtils.parseDate(source, DateFormatUtils.getDefaultPattern()));
+        register(String.class, LocalDateTime.class, source -> DateFormatUtils.parseLocalDateTime(source, DateFormatUtils.getDefaultPattern()));
+        register(String.class, LocalDate.class, source -> DateFormatUtils.parseLocalDate(source, DateFormatUtils.getDefaultPattern()));
+        register(String.class, Instant.class, source -> DateFormatUtils.parseInstant(source, DateFormatUtils.getDefaultPattern()));
+        register(Date.class, String.class, source -> DateFormatUtils.format(source, DateFormatUtils.getDefaultPattern()));
+        register(LocalDateTime.class, String.class, source -> DateFormatUtils.format(source, DateFormatUtils.getDefaultPattern()));
+        register(LocalDate.class, String.class, source -> DateFormatUtils.format(source, DateFormatUtils.DATE_PATTERN));
+        register(Instant.class, String.class, source -> DateFormatUtils.format(source, DateFormatUtils.getDefaultPattern()));
+    }
+
+    /**
+     * 字符串转Boolean: true/false(忽略大小写)，或数字大于0为true
+     */
+    private static Boolean parseBoolean(String source) {
+        if ("true".equalsIgnoreCase(source)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(source)) {
+            return Boolean.FALSE;
+        }
+        if (isNumber(source)) {
+            return Double.parseDouble(source) > 0;
+        }
+        return null;
+    }
+
+    /**
+     * 是否为 -?\d+([.]\d+)? 格式的数字
+     */
+    private static boolean isNumber(String source) {
+        int length = source.length();
+        int i = length > 0 && source.charAt(0) == '-' ? 1 : 0;
+        int digitStart = i;
+        while (i < length && Character.isDigit(source.charAt(i))) {
+            i++;
+        }
+        if (i == digitStart) {
+            return false;
+        }
+        if (i < length && source.charAt(i) == '.') {
+            int fractionStart = ++i;
+            while (i < length && Character.isDigit(source.charAt(i))) {
+                i++;
+            }
+            if (i == fractionStart) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    /**
+     * 将基本类型转化为包装类
+     */
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+    /**
+     * 按值的运行时类型转换到固定目标类型，按值类型缓存解析结果，查询不创建对象
+     */
+    private final class DynamicConverter implements Converter<Object, Object> {
+        private final Class<?> target;
+
+        /**
+         * 与resolved同一代的缓存，注册转换器后第一次转换时重建
+         */
+        private volatile ValueConverters cache;
+
+        private DynamicConverter(Class<?> target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object convert(Object value) {
+            ConcurrentHashMap<ConvertKey, Converter<Object, Object>> generation = resolved;
+            ValueConverters current = cache;
+            if (current == null || current.generation != generation) {
+                current = new ValueConverters(generation);
+                cache = current;
+            }
+            Class<?> valueType = value.getClass();
+            Converter<Object, Object> valueConverter = current.converters.get(valueType);
+            if (valueConverter == null) {
+                valueConverter = resolve(valueType, target, false);
+                current.converters.putIfAbsent(valueType, valueConverter);
+            }
+            return valueConverter.convert(value);
+        }
+    }
+
+    private static final class ValueConverters {
+        private final ConcurrentHashMap<ConvertKey, Converter<Object, Object>> generation;
+        private final ConcurrentHashMap<Class<?>, Converter<Object, Object>> converters = new ConcurrentHashMap<>();
+
+        private ValueConverters(ConcurrentHashMap<ConvertKey, Converter<Object, Object>> generation) {
+            this.generation = generation;
+        }
+    }
+
+    private static final class ConvertKey {
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+
+        ConvertKey(Class<?> sourceType, Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConvertKey)) {
+                return false;
+            }
+            ConvertKey that = (ConvertKey) o;
+            return sourceType == that.sourceType && targetType == that.targetType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sourceType.hashCode() + targetType.hashCode();
+        }
+    }
+}
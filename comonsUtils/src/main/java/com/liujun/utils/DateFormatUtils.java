@@ -0,0 +1,346 @@
+package com.liujun.utils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 日期格式转换工具类<br/>
+ * 字符串与Date、LocalDate、LocalDateTime、Instant互相转换，线程安全<br/>
+ * 每种格式只创建一次DateTimeFormatter并缓存；默认格式yyyy-MM-dd HH:mm:ss及yyyy-MM-dd直接按位解析数字，不经过正则和SimpleDateFormat
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public final class DateFormatUtils {
+
+    /**
+     * 默认日期时间格式
+     */
+    public static final String DEFAULT_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * 日期格式
+     */
+    public static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    private static final ConcurrentHashMap<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    private static volatile String defaultPattern = DEFAULT_PATTERN;
+
+    private static volatile ZoneId zone = ZoneId.systemDefault();
+
+    private DateFormatUtils() {
+    }
+
+    /**
+     * 设置全局默认格式，未单独指定格式的属性使用该格式
+     *
+     * @param pattern 格式
+     */
+    public static void setDefaultPattern(String pattern) {
+        formatter(pattern);
+        defaultPattern = pattern;
+    }
+
+    public static String getDefaultPattern() {
+        return defaultPattern;
+    }
+
+    /**
+     * 设置Date、Instant与本地时间互相转换时使用的时区，默认为系统时区
+     *
+     * @param zoneId 时区
+     */
+    public static void setZone(ZoneId zoneId) {
+        zone = Objects.requireNonNull(zoneId, "zoneId");
+    }
+
+    public static ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 获取格式对应的DateTimeFormatter，每种格式只创建一次
+     *
+     * @param pattern 格式
+     * @return DateTimeFormatter
+     */
+    public static DateTimeFormatter formatter(String pattern) {
+        DateTimeFormatter formatter = FORMATTERS.get(pattern);
+        if (formatter == null) {
+            formatter = FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+        }
+        return formatter;
+    }
+
+    /**
+     * 按格式解析为LocalDateTime，格式中没有时间部分时为当天0点
+     *
+     * @param text    字符串
+     * @param pattern 格式
+     * @return LocalDateTime
+     */
+    public static LocalDateTime parseLocalDateTime(CharSequence text, String pattern) {
+        if (DEFAULT_PATTERN.equals(pattern)) {
+            LocalDateTime dateTime = fastParseDateTime(text);
+            if (dateTime != null) {
+                return dateTime;
+            }
+        } else if (DATE_PATTERN.equals(pattern)) {
+            LocalDate date = fastParseDate(text);
+            if (date != null) {
+                return date.atStartOfDay();
+            }
+        }
+        TemporalAccessor temporal = formatter(pattern).parse(text);
+        LocalDate date = LocalDate.from(temporal);
+        return temporal.isSupported(ChronoField.NANO_OF_DAY) ? date.atTime(LocalTime.from(temporal)) : date.atStartOfDay();
+    }
+
+    /**
+     * 按格式解析为LocalDate，格式中有时间部分时忽略时间
+     *
+     * @param text    字符串
+     * @param pattern 格式
+     * @return LocalDate
+     */
+    public static LocalDate parseLocalDate(CharSequence text, String pattern) {
+        if (DATE_PATTERN.equals(pattern)) {
+            LocalDate date = fastParseDate(text);
+            if (date != null) {
+                return date;
+            }
+        }
+        return parseLocalDateTime(text, pattern).toLocalDate();
+    }
+
+    /**
+     * 按格式解析为Instant，格式中的时间视为setZone指定的时区
+     *
+     * @param text    字符串
+     * @param pattern 格式
+     * @return Instant
+     */
+    public static Instant parseInstant(CharSequence text, String pattern) {
+        return parseLocalDateTime(text, pattern).atZone(zone).toInstant();
+    }
+
+    /**
+     * 按格式解析为Date，格式中的时间视为setZone指定的时区
+     *
+     * @param text    字符串
+     * @param pattern 格式
+     * @return Date
+     */
+    public static Date parseDate(CharSequence text, String pattern) {
+        return new Date(parseInstant(text, pattern).toEpochMilli());
+    }
+
+    /**
+     * 按默认格式解析为Date
+     *
+     * @param text 字符串
+     * @return Date
+     */
+    public static Date parseDate(CharSequence text) {
+        return parseDate(text, defaultPattern);
+    }
+
+    /**
+     * 按格式格式化LocalDateTime
+     *
+     * @param dateTime LocalDateTime
+     * @param pattern  格式
+     * @return 字符串
+     */
+    public static String format(LocalDateTime dateTime, String pattern) {
+        if (DEFAULT_PATTERN.equals(pattern) && dateTime.getYear() >= 0 && dateTime.getYear() <= 9999) {
+            char[] chars = new char[19];
+            writeDate(chars, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+            chars[10] = ' ';
+            writeDigits(chars, 11, dateTime.getHour(), 2);
+            chars[13] = ':';
+            writeDigits(chars, 14, dateTime.getMinute(), 2);
+            chars[16] = ':';
+            writeDigits(chars, 17, dateTime.getSecond(), 2);
+            return new String(chars);
+        }
+        return formatter(pattern).format(dateTime);
+    }
+
+    /**
+     * 按格式格式化LocalDate
+     *
+     * @param date    LocalDate
+     * @param pattern 格式
+     * @return 字符串
+     */
+    public static String format(LocalDate date, String pattern) {
+        if (DATE_PATTERN.equals(pattern) && date.getYear() >= 0 && date.getYear() <= 9999) {
+            char[] chars = new char[10];
+            writeDate(chars, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            return new String(chars);
+        }
+        if (DEFAULT_PATTERN.equals(pattern)) {
+            return format(date.atStartOfDay(), pattern);
+        }
+        return formatter(pattern).format(date);
+    }
+
+    /**
+     * 按格式格式化Instant，使用setZone指定的时区
+     *
+     * @param instant Instant
+     * @param pattern 格式
+     * @return 字符串
+     */
+    public static String format(Instant instant, String pattern) {
+        return format(LocalDateTime.ofInstant(instant, zone), pattern);
+    }
+
+    /**
+     * 按格式格式化Date，使用setZone指定的时区
+     *
+     * @param date    Date
+     * @param pattern 格式
+     * @return 字符串
+     */
+    public static String format(Date date, String pattern) {
+        return format(Instant.ofEpochMilli(date.getTime()), pattern);
+    }
+
+    /**
+     * 按默认格式格式化Date
+     *
+     * @param date Date
+     * @return 字符串
+     */
+    public static String format(Date date) {
+        return format(date, defaultPattern);
+    }
+
+    /**
+     * 获取字符串与日期类型之间按指定格式转换的转换器
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param pattern    格式
+     * @return 转换器，源类型和目标类型不是字符串与日期类型时返回null
+     */
+    static ConverterRegistry.Converter<Object, Object> converter(Class<?> sourceType, Class<?> targetType, String pattern) {
+        if (CharSequence.class.isAssignableFrom(sourceType)) {
+            if (targetType == Date.class) {
+                return source -> parseDate((CharSequence) source, pattern);
+            }
+            if (targetType == LocalDateTime.class) {
+                return source -> parseLocalDateTime((CharSequence) source, pattern);
+            }
+            if (targetType == LocalDate.class) {
+                return source -> parseLocalDate((CharSequence) source, pattern);
+            }
+            if (targetType == Instant.class) {
+                return source -> parseInstant((CharSequence) source, pattern);
+            }
+        }
+        if (targetType.isAssignableFrom(String.class)) {
+            if (Date.class.isAssignableFrom(sourceType)) {
+                return source -> format((Date) source, pattern);
+            }
+            if (sourceType == LocalDateTime.class) {
+                return source -> format((LocalDateTime) source, pattern);
+            }
+            if (sourceType == LocalDate.class) {
+                return source -> format((LocalDate) source, pattern);
+            }
+            if (sourceType == Instant.class) {
+                return source -> format((Instant) source, pattern);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按位解析yyyy-MM-dd HH:mm:ss，格式不符或日期无效时返回null
+     */
+    private static LocalDateTime fastParseDateTime(CharSequence text) {
+        if (text.length() != 19 || text.charAt(10) != ' ' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return null;
+        }
+        int hour = readDigits(text, 11, 2);
+        int minute = readDigits(text, 14, 2);
+        int second = readDigits(text, 17, 2);
+        LocalDate date = parseDatePrefix(text);
+        if (date == null || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(date, LocalTime.of(hour, minute, second));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按位解析yyyy-MM-dd，格式不符或日期无效时返回null
+     */
+    private static LocalDate fastParseDate(CharSequence text) {
+        return text.length() == 10 ? parseDatePrefix(text) : null;
+    }
+
+    /**
+     * 按位解析前10位的yyyy-MM-dd，调用方负责校验长度及之后的内容，格式不符或日期无效时返回null
+     */
+    private static LocalDate parseDatePrefix(CharSequence text) {
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        int year = readDigits(text, 0, 4);
+        int month = readDigits(text, 5, 2);
+        int day = readDigits(text, 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int readDigits(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void writeDate(char[] chars, int year, int month, int day) {
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, day, 2);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
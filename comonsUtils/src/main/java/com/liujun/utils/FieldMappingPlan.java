@@ -0,0 +1,273 @@
+package com.liujun.utils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 属性映射计划<br/>
+ * 由源类型、目标类型及映射参数生成的有序属性对，生成后不可变，可在多线程间共享
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class FieldMappingPlan {
+
+    /**
+     * 复制方式: 读取对象值，经转换器转换后写入
+     */
+    static final int OBJECT = 0;
+
+    /**
+     * 复制方式: 字符串直接解析后写入int属性
+     */
+    static final int PARSE_INT = 1;
+
+    /**
+     * 复制方式: 字符串直接解析后写入long属性
+     */
+    static final int PARSE_LONG = 2;
+
+    /**
+     * 复制方式: 字符串直接解析后写入double属性
+     */
+    static final int PARSE_DOUBLE = 3;
+
+    /**
+     * 复制方式: int属性直接写入int属性
+     */
+    static final int COPY_INT = 4;
+
+    /**
+     * 复制方式: long属性直接写入long属性
+     */
+    static final int COPY_LONG = 5;
+
+    /**
+     * 复制方式: double属性直接写入double属性
+     */
+    static final int COPY_DOUBLE = 6;
+
+    /**
+     * 单个属性的映射关系
+     */
+    static final class Entry {
+        /**
+         * 源属性，源为map时为null
+         */
+        final Field sourceField;
+
+        /**
+         * 源key，源为对象时为null
+         */
+        final String sourceKey;
+
+        /**
+         * 目标属性，目标为map时为null
+         */
+        final Field targetField;
+
+        /**
+         * 目标key，目标为对象时为null
+         */
+        final String targetKey;
+
+        /**
+         * 生成计划时解析好的类型转换器
+         */
+        final ConverterRegistry.Converter<Object, Object> converter;
+
+        /**
+         * 复制方式，目标为int、long、double属性时可不经过装箱直接写入<br/>
+         * 字符串到数字注册了自定义转换器时不使用PARSE_*；源为map时PARSE_*仅在值为CharSequence时使用，否则使用转换器
+         */
+        final int copyMode;
+
+        Entry(Field sourceField, String sourceKey, Field targetField, String targetKey, ConverterRegistry.Converter<Object, Object> converter, int copyMode) {
+            this.sourceField = sourceField;
+            this.sourceKey = sourceKey;
+            this.targetField = targetField;
+            this.targetKey = targetKey;
+            this.converter = converter;
+            this.copyMode = copyMode;
+        }
+    }
+
+    final Entry[] entries;
+
+    /**
+     * 生成计划时默认ConverterRegistry的版本，注册新转换器后计划过期
+     */
+    final long converterVersion;
+
+    /**
+     * 按需生成的lambda复制器，仅对象->对象的计划使用
+     */
+    private volatile LambdaPropertyCopier lambdaCopier;
+
+    private FieldMappingPlan(Entry[] entries, long converterVersion) {
+        this.entries = entries;
+        this.converterVersion = converterVersion;
+    }
+
+    /**
+     * @return 是否在默认ConverterRegistry注册新转换器之前生成
+     */
+    boolean isStale() {
+        return converterVersion != ConverterRegistry.getDefault().getVersion();
+    }
+
+    boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    /**
+     * 获取lambda复制器，首次调用时生成
+     *
+     * @return lambda复制器
+     */
+    LambdaPropertyCopier lambdaCopier() {
+        LambdaPropertyCopier copier = lambdaCopier;
+        if (copier == null) {
+            copier = LambdaPropertyCopier.of(this);
+            lambdaCopier = copier;
+        }
+        return copier;
+    }
+
+    /**
+     * 由(目标属性->源属性)映射生成计划，按目标属性声明顺序排列
+     *
+     * @param targetClass   目标类型
+     * @param fieldFieldMap (目标属性->源属性)映射map
+     * @return 映射计划
+     */
+    static FieldMappingPlan propertyToProperty(Class<?> targetClass, Map<Field, Field> fieldFieldMap) {
+        //先读取版本再解析转换器，解析期间注册的转换器会使计划过期
+        long converterVersion = ConverterRegistry.getDefault().getVersion();
+        List<Entry> entries = new ArrayList<>();
+        if (fieldFieldMap != null) {
+            for (Field targetField : targetClass.getDeclaredFields()) {
+                Field sourceField = fieldFieldMap.get(targetField);
+                if (sourceField != null) {
+                    sourceField.setAccessible(true);
+                    targetField.setAccessible(true);
+                    Class<?> sourceType = sourceField.getType();
+                    Class<?> targetType = targetField.getType();
+                    ConverterRegistry.Converter<Object, Object> converter = converter(sourceType, targetType, datePattern(sourceField, targetField));
+                    entries.add(new Entry(sourceField, null, targetField, null, converter, copyMode(sourceType, targetType)));
+                }
+            }
+        }
+        return new FieldMappingPlan(entries.toArray(new Entry[0]), converterVersion);
+    }
+
+    /**
+     * 由(目标key->源属性)映射生成计划，按源属性声明顺序排列
+     *
+     * @param sourceClass      源类型
+     * @param targetValueClass 目标map值类型
+     * @param fieldKeyMap      (目标key->源属性)映射map
+     * @return 映射计划
+     */
+    static FieldMappingPlan propertyToKey(Class<?> sourceClass, Class<?> targetValueClass, Map<String, Field> fieldKeyMap) {
+        //先读取版本再解析转换器，解析期间注册的转换器会使计划过期
+        long converterVersion = ConverterRegistry.getDefault().getVersion();
+        List<Entry> entries = new ArrayList<>();
+        if (fieldKeyMap != null) {
+            for (Field sourceField : sourceClass.getDeclaredFields()) {
+                for (Map.Entry<String, Field> entry : fieldKeyMap.entrySet()) {
+                    if (sourceField.equals(entry.getValue())) {
+                        sourceField.setAccessible(true);
+                        ConverterRegistry.Converter<Object, Object> converter = converter(sourceField.getType(), targetValueClass, datePattern(sourceField, null));
+                        entries.add(new Entry(sourceField, null, null, entry.getKey(), converter, OBJECT));
+                    }
+                }
+            }
+        }
+        return new FieldMappingPlan(entries.toArray(new Entry[0]), converterVersion);
+    }
+
+    /**
+     * 由(目标属性->源key)映射生成计划，源map的值类型在复制时才能确定
+     *
+     * @param keyFieldMap (目标属性->源key)映射map
+     * @return 映射计划
+     */
+    static FieldMappingPlan keyToProperty(Map<Field, String> keyFieldMap) {
+        //先读取版本再解析转换器，解析期间注册的转换器会使计划过期
+        long converterVersion = ConverterRegistry.getDefault().getVersion();
+        List<Entry> entries = new ArrayList<>();
+        if (keyFieldMap != null) {
+            for (Map.Entry<Field, String> entry : keyFieldMap.entrySet()) {
+                Field targetField = entry.getKey();
+                targetField.setAccessible(true);
+                Class<?> targetType = targetField.getType();
+                ConverterRegistry.Converter<Object, Object> converter = ConverterRegistry.getDefault().resolve(Object.class, targetType);
+                String pattern = datePattern(null, targetField);
+                ConverterRegistry.Converter<Object, Object> dateConverter = pattern == null ? null : DateFormatUtils.converter(CharSequence.class, targetType, pattern);
+                if (dateConverter != null) {
+                    //map的值为字符串时按属性的日期格式解析
+                    ConverterRegistry.Converter<Object, Object> valueConverter = converter;
+                    converter = value -> value instanceof CharSequence ? dateConverter.convert(value) : valueConverter.convert(value);
+                }
+                entries.add(new Entry(null, entry.getValue(), targetField, null, converter, copyMode(String.class, targetType)));
+            }
+        }
+        return new FieldMappingPlan(entries.toArray(new Entry[0]), converterVersion);
+    }
+
+    /**
+     * 解析转换器，指定了日期格式且为字符串与日期类型之间的转换时按该格式转换
+     */
+    private static ConverterRegistry.Converter<Object, Object> converter(Class<?> sourceType, Class<?> targetType, String datePattern) {
+        if (datePattern != null) {
+            ConverterRegistry.Converter<Object, Object> converter = DateFormatUtils.converter(sourceType, targetType, datePattern);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return ConverterRegistry.getDefault().resolve(sourceType, targetType);
+    }
+
+    /**
+     * 获取属性上标注的日期格式，目标属性优先
+     */
+    private static String datePattern(Field sourceField, Field targetField) {
+        BeanFieldsUtils.DatePattern datePattern = targetField == null ? null : targetField.getAnnotation(BeanFieldsUtils.DatePattern.class);
+        if (datePattern == null && sourceField != null) {
+            datePattern = sourceField.getAnnotation(BeanFieldsUtils.DatePattern.class);
+        }
+        return datePattern == null ? null : datePattern.value();
+    }
+
+    /**
+     * 选择复制方式，字符串到数字注册了自定义转换器时使用转换器，不直接解析
+     */
+    private static int copyMode(Class<?> sourceType, Class<?> targetType) {
+        if (CharSequence.class.isAssignableFrom(sourceType) && !ConverterRegistry.getDefault().isCustomized(sourceType, targetType)) {
+            if (targetType == int.class) {
+                return PARSE_INT;
+            }
+            if (targetType == long.class) {
+                return PARSE_LONG;
+            }
+            if (targetType == double.class) {
+                return PARSE_DOUBLE;
+            }
+        }
+        if (sourceType == targetType) {
+            if (targetType == int.class) {
+                return COPY_INT;
+            }
+            if (targetType == long.class) {
+                return COPY_LONG;
+            }
+            if (targetType == double.class) {
+                return COPY_DOUBLE;
+            }
+        }
+        return OBJECT;
+    }
+}
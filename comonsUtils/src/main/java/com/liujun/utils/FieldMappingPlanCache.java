@@ -0,0 +1,350 @@
+package com.liujun.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 属性映射计划缓存<br/>
+ * 以(源类型, 目标类型, 映射参数)为key缓存已生成的映射计划，重复复制同一对类型时不再反射获取属性<br/>
+ * 线程安全，数量超过上限时按放入顺序淘汰最早的计划；默认ConverterRegistry注册新转换器后，之前生成的计划视为未命中并重新生成<br/>
+ * 属性名处理器按类型比较，只缓存无实例字段的处理器(不捕获外部变量的lambda、无状态的类)；
+ * 有实例字段的处理器(捕获了外部变量的lambda等)每次调用都可能不同，不放入缓存，每次重新生成计划，重复使用时建议使用BeanCopier
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class FieldMappingPlanCache {
+
+    /**
+     * 默认最大缓存数量
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final ConcurrentHashMap<Key, FieldMappingPlan> plans = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private volatile int maximumSize;
+
+    public FieldMappingPlanCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public FieldMappingPlanCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * 获取缓存的计划
+     *
+     * @param key 缓存key
+     * @return 计划，未命中或计划生成后注册了新转换器时返回null
+     */
+    FieldMappingPlan get(Key key) {
+        FieldMappingPlan plan = plans.get(key);
+        if (plan != null && plan.isStale()) {
+            plan = null;
+        }
+        if (plan == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return plan;
+    }
+
+    /**
+     * 放入计划
+     *
+     * @param frozenKey 由Key.freeze生成的缓存key，放入后不能再修改
+     * @param plan      计划
+     * @return 实际缓存的计划(并发放入时返回先放入的计划，先放入的计划已过期时替换为plan)
+     */
+    FieldMappingPlan put(Key frozenKey, FieldMappingPlan plan) {
+        FieldMappingPlan existing = plans.putIfAbsent(frozenKey, plan);
+        if (existing != null) {
+            if (existing.converterVersion != plan.converterVersion && plans.replace(frozenKey, existing, plan)) {
+                return plan;
+            }
+            return existing;
+        }
+        insertionOrder.add(frozenKey);
+        evict();
+        return plan;
+    }
+
+    private void evict() {
+        while (plans.size() > maximumSize) {
+            Key eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            if (plans.remove(eldest) != null) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 清空全部计划
+     */
+    public void invalidateAll() {
+        plans.clear();
+        insertionOrder.clear();
+    }
+
+    /**
+     * 清除源类型或目标类型为type的计划，用于类被重新加载等场景
+     *
+     * @param type 类型
+     */
+    public void invalidate(Class<?> type) {
+        insertionOrder.removeIf(key -> key.involves(type));
+        plans.keySet().removeIf(key -> key.involves(type));
+    }
+
+    /**
+     * 设置最大缓存数量
+     *
+     * @param maximumSize 最大缓存数量，必须大于0
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize必须大于0: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        evict();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return 当前缓存的计划数量
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 重置命中、未命中、淘汰次数
+     */
+    public void resetStats() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "FieldMappingPlanCache{size=" + size() + ", maximumSize=" + maximumSize + ", hitCount=" + getHitCount()
+                + ", missCount=" + getMissCount() + ", evictionCount=" + getEvictionCount() + "}";
+    }
+
+    /**
+     * 获取当前线程复用的查询key，查询缓存时不创建对象<br/>
+     * 查询结束后需在finally中调用Key.clear释放引用；未命中时先用Key.freeze复制再释放，
+     * 生成计划期间(会调用用户的属性名处理器，可能嵌套复制)不能继续使用查询key<br/>
+     * 属性名处理器需先经isCacheable判断
+     */
+    static Key lookupKey(Class<?> sourceClass, Class<?> targetClass, boolean mapTarget, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, Object fieldNameHandler) {
+        Key key = LOOKUP_KEY.get();
+        key.set(sourceClass, targetClass, mapTarget, ignoreSame, ignoreSourceFields, ignoreTargetFields, sourceToTargetFieldsMap, ignoreOutOfMap, fieldNameHandler == null ? null : fieldNameHandler.getClass());
+        return key;
+    }
+
+    private static final ThreadLocal<Key> LOOKUP_KEY = ThreadLocal.withInitial(Key::new);
+
+    /**
+     * 属性名处理器能否使用缓存: 为null或处理器类(包括父类)没有实例字段
+     *
+     * @param fieldNameHandler 属性名处理器
+     * @return 能否使用缓存，不能时需每次重新生成计划
+     */
+    static boolean isCacheable(Object fieldNameHandler) {
+        return fieldNameHandler == null || STATELESS.get(fieldNameHandler.getClass());
+    }
+
+    private static final ClassValue<Boolean> STATELESS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    };
+
+    /**
+     * 缓存key: (源类型, 目标类型, 映射参数)<br/>
+     * 目标为map时targetClass为map的值类型，属性名处理器只记录其类型<br/>
+     * 放入缓存的key由freeze生成，之后不再修改；查询用的key每个线程复用一个
+     */
+    static final class Key {
+        private Class<?> sourceClass;
+        private Class<?> targetClass;
+        private boolean mapTarget;
+        private boolean ignoreSame;
+        private List<String> ignoreSourceFields;
+        private List<String> ignoreTargetFields;
+        private Map<String, String> sourceToTargetFieldsMap;
+        private boolean ignoreOutOfMap;
+        private Class<?> fieldNameHandlerClass;
+        private int hashCode;
+
+        private Key() {
+        }
+
+        private void set(Class<?> sourceClass, Class<?> targetClass, boolean mapTarget, boolean ignoreSame, List<String> ignoreSourceFields, List<String> ignoreTargetFields, Map<String, String> sourceToTargetFieldsMap, boolean ignoreOutOfMap, Class<?> fieldNameHandlerClass) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.mapTarget = mapTarget;
+            this.ignoreSame = ignoreSame;
+            this.ignoreSourceFields = ignoreSourceFields;
+            this.ignoreTargetFields = ignoreTargetFields;
+            this.sourceToTargetFieldsMap = sourceToTargetFieldsMap;
+            this.ignoreOutOfMap = ignoreOutOfMap;
+            this.fieldNameHandlerClass = fieldNameHandlerClass;
+            int result = Objects.hashCode(sourceClass);
+            result = 31 * result + Objects.hashCode(targetClass);
+            result = 31 * result + Boolean.hashCode(mapTarget);
+            result = 31 * result + Boolean.hashCode(ignoreSame);
+            result = 31 * result + listHashCode(ignoreSourceFields);
+            result = 31 * result + listHashCode(ignoreTargetFields);
+            result = 31 * result + Objects.hashCode(sourceToTargetFieldsMap);
+            result = 31 * result + Boolean.hashCode(ignoreOutOfMap);
+            result = 31 * result + System.identityHashCode(fieldNameHandlerClass);
+            this.hashCode = result;
+        }
+
+        /**
+         * 释放查询key持有的引用
+         */
+        void clear() {
+            set(null, null, false, false, null, null, null, false, null);
+        }
+
+        /**
+         * 复制集合参数，防止调用方修改集合后缓存key失效
+         */
+        Key freeze() {
+            Key key = new Key();
+            key.set(sourceClass, targetClass, mapTarget, ignoreSame,
+                    ignoreSourceFields == null ? null : new ArrayList<>(ignoreSourceFields),
+                    ignoreTargetFields == null ? null : new ArrayList<>(ignoreTargetFields),
+                    sourceToTargetFieldsMap == null ? null : new HashMap<>(sourceToTargetFieldsMap),
+                    ignoreOutOfMap, fieldNameHandlerClass);
+            return key;
+        }
+
+        boolean involves(Class<?> type) {
+            return sourceClass == type || targetClass == type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && sourceClass == key.sourceClass
+                    && targetClass == key.targetClass
+                    && mapTarget == key.mapTarget
+                    && ignoreSame == key.ignoreSame
+                    && ignoreOutOfMap == key.ignoreOutOfMap
+                    && fieldNameHandlerClass == key.fieldNameHandlerClass
+                    && listEquals(ignoreSourceFields, key.ignoreSourceFields)
+                    && listEquals(ignoreTargetFields, key.ignoreTargetFields)
+                    && Objects.equals(sourceToTargetFieldsMap, key.sourceToTargetFieldsMap);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        /**
+         * 与List.hashCode结果相同，RandomAccess的list按下标遍历，查询时不创建迭代器
+         */
+        private static int listHashCode(List<String> list) {
+            if (!(list instanceof RandomAccess)) {
+                return Objects.hashCode(list);
+            }
+            int result = 1;
+            for (int i = 0, size = list.size(); i < size; i++) {
+                result = 31 * result + Objects.hashCode(list.get(i));
+            }
+            return result;
+        }
+
+        /**
+         * 与List.equals结果相同，RandomAccess的list按下标比较，查询时不创建迭代器
+         */
+        private static boolean listEquals(List<String> a, List<String> b) {
+            if (a == b) {
+                return true;
+            }
+            if (a == null || b == null) {
+                return false;
+            }
+            if (!(a instanceof RandomAccess) || !(b instanceof RandomAccess)) {
+                return a.equals(b);
+            }
+            int size = a.size();
+            if (size != b.size()) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!Objects.equals(a.get(i), b.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
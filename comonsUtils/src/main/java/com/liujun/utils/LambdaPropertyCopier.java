@@ -0,0 +1,285 @@
+package com.liujun.utils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 基于LambdaMetafactory生成的属性复制器<br/>
+ * 为每个属性生成直接调用getter/setter的函数对象，int、long、double属性不经过装箱，
+ * 字符串到int、long、double的转换通过NumberParseUtils直接完成<br/>
+ * 没有public的getter/setter，或类对工具类不可见时，该属性退回反射复制
+ * 每个属性生成一个Step，按顺序调用；不为每个计划生成专用字节码，copy中的Step调用点在多个计划间是多态的，
+ * 开销来自接口调用而非反射
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class LambdaPropertyCopier {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * 单个属性的复制步骤
+     */
+    interface Step {
+        void copy(Object source, Object target) throws IllegalAccessException;
+    }
+
+    private final Step[] steps;
+
+    private LambdaPropertyCopier(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * 复制属性
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    void copy(Object source, Object target) {
+        for (Step step : steps) {
+            try {
+                step.copy(source, target);
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 根据对象->对象的映射计划生成复制器
+     *
+     * @param plan 映射计划
+     * @return 复制器
+     */
+    static LambdaPropertyCopier of(FieldMappingPlan plan) {
+        Step[] steps = new Step[plan.entries.length];
+        for (int i = 0; i < steps.length; i++) {
+            FieldMappingPlan.Entry entry = plan.entries[i];
+            Step step = null;
+            try {
+                step = lambdaStep(entry);
+            } catch (ReflectiveOperationException | LambdaConversionException ignored) {
+                //生成失败时使用反射
+            }
+            steps[i] = step == null ? reflectStep(entry) : step;
+        }
+        return new LambdaPropertyCopier(steps);
+    }
+
+    private static Step reflectStep(FieldMappingPlan.Entry entry) {
+        Field sourceField = entry.sourceField;
+        Field targetField = entry.targetField;
+        ConverterRegistry.Converter<Object, Object> converter = entry.converter;
+        return (source, target) -> {
+            Object value = sourceField.get(source);
+            if (value != null) {
+                value = converter.convert(value);
+                if (value != null) {
+                    targetField.set(target, value);
+                }
+            }
+        };
+    }
+
+    private static Step lambdaStep(FieldMappingPlan.Entry entry) throws ReflectiveOperationException, LambdaConversionException {
+        Field sourceField = entry.sourceField;
+        Field targetField = entry.targetField;
+        Method getter = findGetter(sourceField);
+        Method setter = findSetter(targetField);
+        if (getter == null || setter == null) {
+            return null;
+        }
+        MethodHandle getterHandle = LOOKUP.unreflect(getter);
+        MethodHandle setterHandle = LOOKUP.unreflect(setter);
+        Class<?> sourceType = sourceField.getType();
+        Class<?> targetType = targetField.getType();
+        switch (entry.copyMode) {
+            case FieldMappingPlan.COPY_INT: {
+                ToIntFunction<Object> get = toIntFunction(getterHandle);
+                ObjIntConsumer<Object> set = objIntConsumer(setterHandle);
+                return (source, target) -> set.accept(target, get.applyAsInt(source));
+            }
+            case FieldMappingPlan.COPY_LONG: {
+                ToLongFunction<Object> get = toLongFunction(getterHandle);
+                ObjLongConsumer<Object> set = objLongConsumer(setterHandle);
+                return (source, target) -> set.accept(target, get.applyAsLong(source));
+            }
+            case FieldMappingPlan.COPY_DOUBLE: {
+                ToDoubleFunction<Object> get = toDoubleFunction(getterHandle);
+                ObjDoubleConsumer<Object> set = objDoubleConsumer(setterHandle);
+                return (source, target) -> set.accept(target, get.applyAsDouble(source));
+            }
+            default:
+                break;
+        }
+        Function<Object, Object> get = function(getterHandle);
+        switch (entry.copyMode) {
+            case FieldMappingPlan.PARSE_INT: {
+                ObjIntConsumer<Object> set = objIntConsumer(setterHandle);
+                return (source, target) -> {
+                    CharSequence value = (CharSequence) get.apply(source);
+                    if (value != null) {
+                        set.accept(target, NumberParseUtils.parseInt(value));
+                    }
+                };
+            }
+            case FieldMappingPlan.PARSE_LONG: {
+                ObjLongConsumer<Object> set = objLongConsumer(setterHandle);
+                return (source, target) -> {
+                    CharSequence value = (CharSequence) get.apply(source);
+                    if (value != null) {
+                        set.accept(target, NumberParseUtils.parseLong(value));
+                    }
+                };
+            }
+            case FieldMappingPlan.PARSE_DOUBLE: {
+                ObjDoubleConsumer<Object> set = objDoubleConsumer(setterHandle);
+                return (source, target) -> {
+                    CharSequence value = (CharSequence) get.apply(source);
+                    if (value != null) {
+                        set.accept(target, NumberParseUtils.parseDouble(value));
+                    }
+                };
+            }
+            default:
+                break;
+        }
+        BiConsumer<Object, Object> set = biConsumer(setterHandle);
+        if (sourceType == targetType && !targetType.isPrimitive()) {
+            return (source, target) -> {
+                Object value = get.apply(source);
+                if (value != null) {
+                    set.accept(target, value);
+                }
+            };
+        }
+        ConverterRegistry.Converter<Object, Object> converter = entry.converter;
+        return (source, target) -> {
+            Object value = get.apply(source);
+            if (value != null) {
+                value = converter.convert(value);
+                if (value != null) {
+                    set.accept(target, value);
+                }
+            }
+        };
+    }
+
+    private static Method findGetter(Field field) {
+        String name = capitalize(field.getName());
+        Method getter = findPublicMethod(field.getDeclaringClass(), "get" + name);
+        if (getter == null && field.getType() == boolean.class) {
+            getter = findPublicMethod(field.getDeclaringClass(), "is" + name);
+        }
+        return getter != null && getter.getReturnType() == field.getType() ? getter : null;
+    }
+
+    private static Method findSetter(Field field) {
+        Method setter = findPublicMethod(field.getDeclaringClass(), "set" + capitalize(field.getName()), field.getType());
+        return setter != null && setter.getReturnType() == void.class ? setter : null;
+    }
+
+    private static Method findPublicMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        if (!isAccessible(clazz)) {
+            return null;
+        }
+        try {
+            Method method = clazz.getMethod(name, parameterTypes);
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 类必须是public的，且能从工具类的类加载器加载到同一个类，生成的lambda才能链接到它
+     */
+    static boolean isAccessible(Class<?> clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, LambdaPropertyCopier.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 生成调用impl的函数式接口实例，F由调用方的目标类型决定，需与functionalInterface一致
+     *
+     * @param functionalInterface 函数式接口
+     * @param samName             接口方法名
+     * @param samType             接口方法擦除后的类型
+     * @param impl                实现
+     * @param instantiatedType    接口方法实际的类型
+     * @return 函数式接口实例
+     * @throws LambdaConversionException 无法生成
+     */
+    @SuppressWarnings("unchecked")
+    static <F> F lambda(Class<?> functionalInterface, String samName, MethodType samType, MethodHandle impl, MethodType instantiatedType) throws LambdaConversionException {
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, samName, MethodType.methodType(functionalInterface), samType, impl, instantiatedType);
+        try {
+            return (F) site.getTarget().invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new LambdaConversionException("创建" + functionalInterface.getName() + "实例失败", e);
+        }
+    }
+
+    private static Function<Object, Object> function(MethodHandle getter) throws LambdaConversionException {
+        return lambda(Function.class, "apply", MethodType.methodType(Object.class, Object.class), getter, getter.type().wrap());
+    }
+
+    private static ToIntFunction<Object> toIntFunction(MethodHandle getter) throws LambdaConversionException {
+        return lambda(ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class), getter, getter.type());
+    }
+
+    private static ToLongFunction<Object> toLongFunction(MethodHandle getter) throws LambdaConversionException {
+        return lambda(ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class), getter, getter.type());
+    }
+
+    private static ToDoubleFunction<Object> toDoubleFunction(MethodHandle getter) throws LambdaConversionException {
+        return lambda(ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class), getter, getter.type());
+    }
+
+    private static BiConsumer<Object, Object> biConsumer(MethodHandle setter) throws LambdaConversionException {
+        MethodType setterType = setter.type();
+        MethodType instantiatedType = MethodType.methodType(void.class, setterType.parameterType(0), setterType.wrap().parameterType(1));
+        return lambda(BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class), setter, instantiatedType);
+    }
+
+    private static ObjIntConsumer<Object> objIntConsumer(MethodHandle setter) throws LambdaConversionException {
+        return lambda(ObjIntConsumer.class, "accept", MethodType.methodType(void.class, Object.class, int.class), setter, setter.type());
+    }
+
+    private static ObjLongConsumer<Object> objLongConsumer(MethodHandle setter) throws LambdaConversionException {
+        return lambda(ObjLongConsumer.class, "accept", MethodType.methodType(void.class, Object.class, long.class), setter, setter.type());
+    }
+
+    private static ObjDoubleConsumer<Object> objDoubleConsumer(MethodHandle setter) throws LambdaConversionException {
+        return lambda(ObjDoubleConsumer.class, "accept", MethodType.methodType(void.class, Object.class, double.class), setter, setter.type());
+    }
+}
@@ -0,0 +1,172 @@
+package com.liujun.utils;
+
+/**
+ * 数字解析工具类<br/>
+ * 直接从CharSequence解析int、long、double，不创建中间对象，结果与Integer.parseInt、Long.parseLong、Double.parseDouble一致<br/>
+ * double仅对不超过18位有效数字、10的指数绝对值不超过22的常见写法走快速路径，其他写法交给Double.parseDouble
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public final class NumberParseUtils {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * 2^53，小于该值的long可以精确转为double
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private NumberParseUtils() {
+    }
+
+    /**
+     * 解析十进制int
+     *
+     * @param s 字符序列
+     * @return int值
+     * @throws NumberFormatException 格式错误或溢出
+     */
+    public static int parseInt(CharSequence s) {
+        long value = parseLong(s, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return (int) value;
+    }
+
+    /**
+     * 解析十进制long
+     *
+     * @param s 字符序列
+     * @return long值
+     * @throws NumberFormatException 格式错误或溢出
+     */
+    public static long parseLong(CharSequence s) {
+        return parseLong(s, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private static long parseLong(CharSequence s, long min, long max) {
+        if (s == null) {
+            throw new NumberFormatException("null");
+        }
+        int length = s.length();
+        if (length == 0) {
+            throw numberFormatException(s);
+        }
+        int i = 0;
+        boolean negative = false;
+        long limit = -max;
+        char first = s.charAt(0);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = min;
+            } else if (first != '+') {
+                throw numberFormatException(s);
+            }
+            if (length == 1) {
+                throw numberFormatException(s);
+            }
+            i++;
+        }
+        //按负数累加，避免MIN_VALUE溢出
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        while (i < length) {
+            int digit = s.charAt(i++) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw numberFormatException(s);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(s);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * 解析double
+     *
+     * @param s 字符序列
+     * @return double值
+     * @throws NumberFormatException 格式错误
+     */
+    public static double parseDouble(CharSequence s) {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+        int length = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (s.charAt(0) == '-' || s.charAt(0) == '+')) {
+            negative = s.charAt(0) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean hasDigit = false;
+        char c = 0;
+        //整数部分
+        while (i < length && (c = s.charAt(i)) >= '0' && c <= '9') {
+            hasDigit = true;
+            if (mantissa != 0 || c != '0') {
+                mantissa = mantissa * 10 + (c - '0');
+                significantDigits++;
+            }
+            i++;
+        }
+        //小数部分
+        if (i < length && c == '.') {
+            i++;
+            while (i < length && (c = s.charAt(i)) >= '0' && c <= '9') {
+                hasDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significantDigits++;
+                }
+                exponent--;
+                i++;
+            }
+        }
+        //指数部分
+        if (hasDigit && i < length && (c == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            while (i < length && (c = s.charAt(i)) >= '0' && c <= '9' && explicitExponent < 1000) {
+                explicitExponent = explicitExponent * 10 + (c - '0');
+                i++;
+            }
+            if (i == exponentStart) {
+                return Double.parseDouble(s.toString());
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (!hasDigit || i != length || significantDigits > 18) {
+            //空白、NaN、Infinity、十六进制、类型后缀、超长数字等交给JDK处理
+            return Double.parseDouble(s.toString());
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0d : 0.0d;
+        }
+        if (mantissa < MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            //尾数和10的幂都能精确表示为double，一次乘除即得到正确舍入的结果
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(s.toString());
+    }
+
+    private static NumberFormatException numberFormatException(CharSequence s) {
+        return new NumberFormatException("For input string: \"" + s + "\"");
+    }
+}
@@ -0,0 +1,30 @@
+package com.liujun.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 树的父子关系中存在环时抛出<br/>
+ * getCycleKeys为构成环的主键，从先出现的主键开始，到再次出现该主键结束，如[3, 7, 9, 3]
+ *
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class TreeCycleException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Object> cycleKeys;
+
+    public TreeCycleException(List<Object> cycleKeys) {
+        super("树中存在环: " + cycleKeys);
+        this.cycleKeys = Collections.unmodifiableList(cycleKeys);
+    }
+
+    /**
+     * @return 构成环的主键
+     */
+    public List<Object> getCycleKeys() {
+        return cycleKeys;
+    }
+}
@@ -0,0 +1,785 @@
+package com.liujun.utils;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONWriter;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * 树元素索引，TreeModel、TreeSubModel共用<br/>
+ * 能获取父主键时，一次遍历按父主键分组，之后每个节点的子元素查找为O(1)；
+ * 否则按isChild逐个比较，每个父节点只比较一次并缓存结果<br/>
+ * 子元素顺序与元素列表中的顺序一致；同时按主键索引元素，主键重复时保留第一个<br/>
+ * 缓存模式下可通过insert、update、delete增量修改，修改需与查询互斥，由调用方加锁
+ *
+ * @param <T> 实体类
+ * @param <P> 主键类
+ * @author liujun
+ * @date 2026/10/18
+ */
+final class TreeEntityIndex<T, P> {
+
+    /**
+     * 并行生成节点时每个任务最少处理的元素个数
+     */
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 256;
+
+    /**
+     * 全部元素，按isChild比较时使用
+     */
+    private final List<T> entities;
+
+    private final Function<T, P> primaryKeyFunction;
+
+    /**
+     * 按父主键分组时使用，按isChild比较时为null
+     */
+    private final Function<T, P> parentKeyFunction;
+
+    /**
+     * 按isChild比较时使用，按父主键分组时为null
+     */
+    private final BiPredicate<P, T> isChild;
+
+    /**
+     * 父主键->子元素
+     */
+    private final Map<P, List<T>> childrenMap;
+
+    /**
+     * 主键->元素
+     */
+    private final Map<P, T> entityMap;
+
+    private TreeEntityIndex(List<T> entities, Function<T, P> primaryKeyFunction, Function<T, P> parentKeyFunction, BiPredicate<P, T> isChild, Map<P, List<T>> childrenMap) {
+        this(entities, primaryKeyFunction, parentKeyFunction, isChild, childrenMap, new HashMap<>(Math.max(16, (int) (entities.size() / 0.75f) + 1)));
+        for (T entity : entities) {
+            entityMap.putIfAbsent(primaryKeyFunction.apply(entity), entity);
+        }
+    }
+
+    private TreeEntityIndex(List<T> entities, Function<T, P> primaryKeyFunction, Function<T, P> parentKeyFunction, BiPredicate<P, T> isChild, Map<P, List<T>> childrenMap, Map<P, T> entityMap) {
+        this.entities = entities;
+        this.primaryKeyFunction = primaryKeyFunction;
+        this.parentKeyFunction = parentKeyFunction;
+        this.isChild = isChild;
+        this.childrenMap = childrenMap;
+        this.entityMap = entityMap;
+    }
+
+    /**
+     * 复制索引，修改副本不影响原索引
+     *
+     * @return 副本
+     */
+    TreeEntityIndex<T, P> copy() {
+        if (isChild != null) {
+            //子元素在查询时重新比较
+            return new TreeEntityIndex<>(new ArrayList<>(entities), primaryKeyFunction, null, isChild, new ConcurrentHashMap<>(), new HashMap<>(entityMap));
+        }
+        Map<P, List<T>> childrenCopy = new HashMap<>(Math.max(16, (int) (childrenMap.size() / 0.75f) + 1));
+        for (Map.Entry<P, List<T>> entry : childrenMap.entrySet()) {
+            childrenCopy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return new TreeEntityIndex<>(entities, primaryKeyFunction, parentKeyFunction, null, childrenCopy, new HashMap<>(entityMap));
+    }
+
+    /**
+     * 按父主键分组建立索引
+     *
+     * @param entities           全部元素
+     * @param primaryKeyFunction 获取主键
+     * @param parentKeyFunction  获取父主键
+     * @return 索引
+     */
+    static <T, P> TreeEntityIndex<T, P> byParentKey(List<T> entities, Function<T, P> primaryKeyFunction, Function<T, P> parentKeyFunction) {
+        List<T> allEntities = entities == null ? Collections.emptyList() : entities;
+        Map<P, List<T>> childrenMap = new HashMap<>();
+        for (T entity : allEntities) {
+            P parentKey = parentKeyFunction.apply(entity);
+            if (parentKey != null) {
+                childrenMap.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(entity);
+            }
+        }
+        return new TreeEntityIndex<>(allEntities, primaryKeyFunction, parentKeyFunction, null, childrenMap);
+    }
+
+    /**
+     * 在pool中并行按父主键分组建立索引，元素个数不超过sequentialThreshold时在当前线程建立<br/>
+     * 分组结果与串行相同，子元素保持元素列表中的顺序
+     *
+     * @param entities            全部元素
+     * @param primaryKeyFunction  获取主键
+     * @param parentKeyFunction   获取父主键
+     * @param pool                线程池
+     * @param sequentialThreshold 串行阈值
+     * @return 索引
+     */
+    static <T, P> TreeEntityIndex<T, P> byParentKeyParallel(List<T> entities, Function<T, P> primaryKeyFunction, Function<T, P> parentKeyFunction, ForkJoinPool pool, int sequentialThreshold) {
+        if (entities == null || pool == null || entities.size() <= sequentialThreshold) {
+            return byParentKey(entities, primaryKeyFunction, parentKeyFunction);
+        }
+        //有序并行流按顺序合并(左侧在前)，每组内保持原顺序；每个元素只获取一次父主键
+        Map<P, List<T>> childrenMap = pool.submit(() -> entities.parallelStream()
+                .collect(Collector.<T, Map<P, List<T>>>of(HashMap::new, (map, entity) -> {
+                    P parentKey = parentKeyFunction.apply(entity);
+                    if (parentKey != null) {
+                        map.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(entity);
+                    }
+                }, (left, right) -> {
+                    right.forEach((parentKey, children) -> left.merge(parentKey, children, (leftChildren, rightChildren) -> {
+                        leftChildren.addAll(rightChildren);
+                        return leftChildren;
+                    }));
+                    return left;
+                }))).join();
+        return new TreeEntityIndex<>(entities, primaryKeyFunction, parentKeyFunction, null, childrenMap);
+    }
+
+    /**
+     * 按isChild比较建立索引，查找子元素时才比较
+     *
+     * @param entities           全部元素，缓存模式下需传入可修改的列表
+     * @param primaryKeyFunction 获取主键
+     * @param isChild            判断是否为子元素
+     * @return 索引
+     */
+    static <T, P> TreeEntityIndex<T, P> byIsChild(List<T> entities, Function<T, P> primaryKeyFunction, BiPredicate<P, T> isChild) {
+        List<T> allEntities = entities == null ? Collections.emptyList() : entities;
+        return new TreeEntityIndex<>(allEntities, primaryKeyFunction, null, isChild, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * 判断子类是否重写了基类的getParentKey方法
+     *
+     * @param type     子类
+     * @param baseType 基类
+     * @return 是否重写
+     */
+    static boolean overridesParentKey(Class<?> type, Class<?> baseType) {
+        try {
+            return type.getMethod("getParentKey", Object.class).getDeclaringClass() != baseType;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取子元素
+     *
+     * @param parentKey 父主键
+     * @return 子元素，按元素列表顺序，没有时返回空列表
+     */
+    List<T> getChildren(P parentKey) {
+        if (parentKey == null) {
+            return Collections.emptyList();
+        }
+        if (isChild == null) {
+            List<T> children = childrenMap.get(parentKey);
+            return children == null ? Collections.emptyList() : children;
+        }
+        return childrenMap.computeIfAbsent(parentKey, this::findChildren);
+    }
+
+    private List<T> findChildren(P parentKey) {
+        List<T> children = new ArrayList<>();
+        for (T entity : entities) {
+            if (isChild.test(parentKey, entity)) {
+                children.add(entity);
+            }
+        }
+        return children.isEmpty() ? Collections.emptyList() : children;
+    }
+
+    P getPrimaryKey(T entity) {
+        return primaryKeyFunction.apply(entity);
+    }
+
+    /**
+     * 按主键获取元素
+     *
+     * @param primaryKey 主键
+     * @return 元素，不存在时返回null
+     */
+    T getEntity(P primaryKey) {
+        return entityMap.get(primaryKey);
+    }
+
+    /**
+     * @return 全部主键，只读
+     */
+    Set<P> primaryKeys() {
+        return Collections.unmodifiableSet(entityMap.keySet());
+    }
+
+        boolean isEmpty() {
+        return entityMap.isEmpty();
+    }
+
+    /**
+     * 新增元素，放在父元素的子元素末尾
+     *
+     * @param entity 元素
+     */
+    void insert(T entity) {
+        P primaryKey = getPrimaryKey(entity);
+        if (entityMap.putIfAbsent(primaryKey, entity) != null) {
+            update(entity);
+            return;
+        }
+        if (isChild == null) {
+            P parentKey = parentKeyFunction.apply(entity);
+            if (parentKey != null) {
+                childrenMap.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(entity);
+            }
+        } else {
+            entities.add(entity);
+            childrenMap.clear();
+        }
+    }
+
+    /**
+     * 修改元素，父元素不变时位置不变，父元素改变时放在新父元素的子元素末尾
+     *
+     * @param entity 元素
+     */
+    void update(T entity) {
+        P primaryKey = getPrimaryKey(entity);
+        T old = entityMap.put(primaryKey, entity);
+        if (old == null) {
+            entityMap.remove(primaryKey);
+            insert(entity);
+            return;
+        }
+        if (isChild == null) {
+            P oldParentKey = parentKeyFunction.apply(old);
+            P parentKey = parentKeyFunction.apply(entity);
+            if (Objects.equals(oldParentKey, parentKey)) {
+                List<T> children = parentKey == null ? null : childrenMap.get(parentKey);
+                if (children != null) {
+                    children.replaceAll(child -> Objects.equals(getPrimaryKey(child), primaryKey) ? entity : child);
+                }
+            } else {
+                removeChild(oldParentKey, primaryKey);
+                if (parentKey != null) {
+                    childrenMap.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(entity);
+                }
+            }
+        } else {
+            boolean moved = false;
+            for (P parentKey : entityMap.keySet()) {
+                if (isChild.test(parentKey, old) != isChild.test(parentKey, entity)) {
+                    moved = true;
+                    break;
+                }
+            }
+            if (moved) {
+                entities.removeIf(item -> Objects.equals(getPrimaryKey(item), primaryKey));
+                entities.add(entity);
+            } else {
+                entities.replaceAll(item -> Objects.equals(getPrimaryKey(item), primaryKey) ? entity : item);
+            }
+            childrenMap.clear();
+        }
+    }
+
+    /**
+     * 删除主键为primaryKeys的元素，不删除其子元素
+     *
+     * @param primaryKeys 主键
+     */
+    void delete(Set<P> primaryKeys) {
+        for (P primaryKey : primaryKeys) {
+            T old = entityMap.remove(primaryKey);
+            if (old != null && isChild == null) {
+                removeChild(parentKeyFunction.apply(old), primaryKey);
+            }
+        }
+        if (isChild != null) {
+            entities.removeIf(entity -> primaryKeys.contains(getPrimaryKey(entity)));
+            childrenMap.clear();
+        }
+    }
+
+    private void removeChild(P parentKey, P primaryKey) {
+        List<T> children = parentKey == null ? null : childrenMap.get(parentKey);
+        if (children != null) {
+            children.removeIf(child -> Objects.equals(getPrimaryKey(child), primaryKey));
+            if (children.isEmpty()) {
+                childrenMap.remove(parentKey);
+            }
+        }
+    }
+
+    /**
+     * 为节点生成children，每个节点都有children(可以为空)
+     *
+     * @param parentKey    节点主键
+     * @param parentNode   节点
+     * @param nodeFunction 元素->节点
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    void fillChildren(P parentKey, JSONObject parentNode, Function<T, JSONObject> nodeFunction) {
+        if (isEmpty()) {
+            return;
+        }
+        Deque<JSONArray> childrenStack = new ArrayDeque<>();
+        JSONArray rootChildren = new JSONArray();
+        parentNode.put("children", rootChildren);
+        childrenStack.push(rootChildren);
+        walk(parentKey, new Visitor<T>() {
+            @Override
+            public void enter(T entity, int depth) {
+                JSONObject childNode = nodeFunction.apply(entity);
+                childrenStack.peek().add(childNode);
+                JSONArray childrenNodes = new JSONArray();
+                childNode.put("children", childrenNodes);
+                childrenStack.push(childrenNodes);
+            }
+
+            @Override
+            public void exit(T entity, int depth) {
+                childrenStack.pop();
+            }
+        });
+    }
+
+    /**
+     * 并行为节点生成children，结果与fillChildren相同<br/>
+     * 先按前序遍历得到全部子孙元素(同时检查环)，再在pool中按前序下标范围拆分任务并行调用nodeFunction，
+     * 每个范围由若干完整或部分子树组成；最后按前序依次挂到父节点下，子元素顺序与串行一致<br/>
+     * 子孙元素个数不超过sequentialThreshold时在当前线程生成
+     *
+     * @param parentKey           节点主键
+     * @param parentNode          节点
+     * @param nodeFunction        元素->节点，需线程安全
+     * @param pool                线程池
+     * @param sequentialThreshold 串行阈值
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    void fillChildrenParallel(P parentKey, JSONObject parentNode, Function<T, JSONObject> nodeFunction, ForkJoinPool pool, int sequentialThreshold) {
+        if (isEmpty()) {
+            return;
+        }
+        //前序元素及其父元素在前序中的下标，-1表示parentNode
+        List<T> preOrder = new ArrayList<>();
+        int[][] parentIndexes = {new int[16]};
+        Deque<Integer> indexStack = new ArrayDeque<>();
+        walk(parentKey, new Visitor<T>() {
+            @Override
+            public void enter(T entity, int depth) {
+                int index = preOrder.size();
+                if (index == parentIndexes[0].length) {
+                    parentIndexes[0] = Arrays.copyOf(parentIndexes[0], index * 2);
+                }
+                parentIndexes[0][index] = indexStack.isEmpty() ? -1 : indexStack.peek();
+                preOrder.add(entity);
+                indexStack.push(index);
+            }
+
+            @Override
+            public void exit(T entity, int depth) {
+                indexStack.pop();
+            }
+        });
+        Object[] entityItems = preOrder.toArray();
+        JSONObject[] nodes = new JSONObject[entityItems.length];
+        if (pool == null || entityItems.length <= sequentialThreshold) {
+            createNodes(entityItems, nodes, 0, entityItems.length, nodeFunction);
+        } else {
+            int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, entityItems.length / (pool.getParallelism() * 4));
+            pool.invoke(new NodeTask<>(entityItems, nodes, 0, entityItems.length, chunkSize, nodeFunction));
+        }
+        JSONArray rootChildren = new JSONArray();
+        parentNode.put("children", rootChildren);
+        int[] parents = parentIndexes[0];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i].put("children", new JSONArray());
+            JSONArray siblings = parents[i] < 0 ? rootChildren : nodes[parents[i]].getJSONArray("children");
+            siblings.add(nodes[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void createNodes(Object[] entityItems, JSONObject[] nodes, int from, int to, Function<T, JSONObject> nodeFunction) {
+        for (int i = from; i < to; i++) {
+            nodes[i] = nodeFunction.apply((T) entityItems[i]);
+        }
+    }
+
+    /**
+     * 并行生成节点任务，按前序下标范围二分拆分，每个节点写入与元素相同下标的位置
+     */
+    private static class NodeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] entityItems;
+        private final JSONObject[] nodes;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final Function<T, JSONObject> nodeFunction;
+
+        NodeTask(Object[] entityItems, JSONObject[] nodes, int from, int to, int chunkSize, Function<T, JSONObject> nodeFunction) {
+            this.entityItems = entityItems;
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.nodeFunction = nodeFunction;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                createNodes(entityItems, nodes, from, to, nodeFunction);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NodeTask<>(entityItems, nodes, from, middle, chunkSize, nodeFunction),
+                    new NodeTask<>(entityItems, nodes, middle, to, chunkSize, nodeFunction));
+        }
+    }
+
+    /**
+     * 生成主键为primaryKey开始的部分树，按主键直接定位，耗时与部分树大小成正比
+     *
+     * @param primaryKey   主键
+     * @param nodeFunction 元素->节点
+     * @return 树，主键不存在时返回null
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    JSONObject getSubTree(P primaryKey, Function<T, JSONObject> nodeFunction) {
+        T entity = getEntity(primaryKey);
+        if (entity == null) {
+            return null;
+        }
+        JSONObject node = nodeFunction.apply(entity);
+        fillChildren(primaryKey, node, nodeFunction);
+        return node;
+    }
+
+    /**
+     * 生成主键为primaryKey开始、最多maxDepth层的部分树，只为返回的元素调用nodeFunction<br/>
+     * 每个节点都有hasChildren；深度小于maxDepth的节点有children，深度为maxDepth的节点没有children
+     *
+     * @param primaryKey   主键
+     * @param maxDepth     最大深度，0时只返回primaryKey对应的节点
+     * @param nodeFunction 元素->节点
+     * @return 树，主键不存在时返回null
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    JSONObject getSubTree(P primaryKey, int maxDepth, Function<T, JSONObject> nodeFunction) {
+        T entity = getEntity(primaryKey);
+        if (entity == null) {
+            return null;
+        }
+        JSONObject root = lazyNode(entity, nodeFunction);
+        if (maxDepth <= 0) {
+            return root;
+        }
+        Deque<JSONArray> childrenStack = new ArrayDeque<>();
+        JSONArray rootChildren = new JSONArray();
+        root.put("children", rootChildren);
+        childrenStack.push(rootChildren);
+        walk(primaryKey, maxDepth, new Visitor<T>() {
+            @Override
+            public void enter(T child, int depth) {
+                JSONObject childNode = lazyNode(child, nodeFunction);
+                childrenStack.peek().add(childNode);
+                if (depth < maxDepth) {
+                    JSONArray childrenNodes = new JSONArray();
+                    childNode.put("children", childrenNodes);
+                    childrenStack.push(childrenNodes);
+                }
+            }
+
+            @Override
+            public void exit(T child, int depth) {
+                if (depth < maxDepth) {
+                    childrenStack.pop();
+                }
+            }
+        });
+        return root;
+    }
+
+    /**
+     * 分页获取子节点，每个节点都有hasChildren，没有children
+     *
+     * @param parentKey    父主键
+     * @param offset       跳过的子元素个数
+     * @param limit        最多返回的个数
+     * @param nodeFunction 元素->节点
+     * @return 子节点，按元素列表顺序
+     */
+    JSONArray getChildNodes(P parentKey, int offset, int limit, Function<T, JSONObject> nodeFunction) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset、limit不能小于0: " + offset + ", " + limit);
+        }
+        List<T> children = getChildren(parentKey);
+        int from = Math.min(offset, children.size());
+        int to = (int) Math.min((long) from + limit, children.size());
+        JSONArray childNodes = new JSONArray(to - from);
+        for (T child : children.subList(from, to)) {
+            childNodes.add(lazyNode(child, nodeFunction));
+        }
+        return childNodes;
+    }
+
+    private JSONObject lazyNode(T entity, Function<T, JSONObject> nodeFunction) {
+        JSONObject node = nodeFunction.apply(entity);
+        node.put("hasChildren", !getChildren(getPrimaryKey(entity)).isEmpty());
+        return node;
+    }
+
+    /**
+     * 批量生成部分树，共用同一个索引
+     *
+     * @param primaryKeys  主键
+     * @param nodeFunction 元素->节点
+     * @return 主键->树，按primaryKeys顺序，不包含空主键和不存在的主键
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    Map<P, JSONObject> getSubTrees(Collection<P> primaryKeys, Function<T, JSONObject> nodeFunction) {
+        Map<P, JSONObject> trees = new LinkedHashMap<>(Math.max(16, (int) (primaryKeys.size() / 0.75f) + 1));
+        for (P primaryKey : primaryKeys) {
+            if (primaryKey != null && !trees.containsKey(primaryKey)) {
+                JSONObject tree = getSubTree(primaryKey, nodeFunction);
+                if (tree != null) {
+                    trees.put(primaryKey, tree);
+                }
+            }
+        }
+        return trees;
+    }
+
+    /**
+     * 以流的方式写出以root为根的树，每个节点都有children(可以为空)<br/>
+     * 节点写完即输出，不保留已写出的节点，内存占用与树的深度成正比
+     *
+     * @param root       根元素
+     * @param writer     JSONWriter
+     * @param nodeWriter 写节点属性
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    void writeTree(T root, JSONWriter writer, BiConsumer<T, JSONWriter> nodeWriter) {
+        writer.startObject();
+        nodeWriter.accept(root, writer);
+        if (!isEmpty()) {
+            writer.writeKey("children");
+            writer.startArray();
+            walk(getPrimaryKey(root), new Visitor<T>() {
+                @Override
+                public void enter(T entity, int depth) {
+                    writer.startObject();
+                    nodeWriter.accept(entity, writer);
+                    writer.writeKey("children");
+                    writer.startArray();
+                }
+
+                @Override
+                public void exit(T entity, int depth) {
+                    writer.endArray();
+                    writer.endObject();
+                }
+            });
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    /**
+     * 将节点的全部属性写入已开始的JSON对象
+     *
+     * @param node   节点
+     * @param writer JSONWriter
+     */
+    static void writeProperties(JSONObject node, JSONWriter writer) {
+        for (Map.Entry<String, Object> entry : node.entrySet()) {
+            writer.writeKey(entry.getKey());
+            writer.writeValue(entry.getValue());
+        }
+    }
+
+    /**
+     * 按后序收集所有子孙元素的主键，子元素总在父元素之前
+     *
+     * @param parentKey 主键
+     * @param keys      子孙元素主键，需保持加入顺序
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    void collectDescendantKeys(P parentKey, Set<P> keys) {
+        walk(parentKey, new Visitor<T>() {
+            @Override
+            public void enter(T entity, int depth) {
+            }
+
+            @Override
+            public void exit(T entity, int depth) {
+                keys.add(getPrimaryKey(entity));
+            }
+        });
+    }
+
+    /**
+     * 按顺序分批删除
+     *
+     * @param keys      需要删除的主键
+     * @param batchSize 每批个数，必须大于0
+     * @param keyType   主键类型，用于创建数组
+     * @param remover   删除一批
+     * @param listener  进度监听，可以为null
+     * @return 删除的个数
+     */
+    static <P> int removeInBatches(Collection<P> keys, int batchSize, Class<?> keyType, Consumer<P[]> remover, TreeRemoveListener<P> listener) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize必须大于0: " + batchSize);
+        }
+        int total = keys.size();
+        int removed = 0;
+        Iterator<P> iterator = keys.iterator();
+        while (removed < total) {
+            @SuppressWarnings("unchecked")
+            P[] batch = (P[]) Array.newInstance(keyType, Math.min(batchSize, total - removed));
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = iterator.next();
+            }
+            remover.accept(batch);
+            removed += batch.length;
+            if (listener != null) {
+                listener.onBatchRemoved(batch, removed, total);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 深度优先遍历parentKey的所有子孙元素(不含parentKey本身)<br/>
+     * 使用显式栈，层级深度只受堆内存限制；当前路径上的主键再次出现时抛出TreeCycleException
+     *
+     * @param parentKey 开始遍历的主键
+     * @param visitor   访问者
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    void walk(P parentKey, Visitor<T> visitor) {
+        walk(parentKey, Integer.MAX_VALUE, visitor);
+    }
+
+    /**
+     * 深度优先遍历parentKey的子孙元素，只遍历到深度maxDepth(parentKey的子元素深度为1)
+     *
+     * @param parentKey 开始遍历的主键
+     * @param maxDepth  最大深度
+     * @param visitor   访问者
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    void walk(P parentKey, int maxDepth, Visitor<T> visitor) {
+        Deque<Frame<T, P>> stack = new ArrayDeque<>();
+        Set<P> path = new HashSet<>();
+        path.add(parentKey);
+        stack.push(new Frame<>(null, parentKey, 0, maxDepth > 0 ? getChildren(parentKey).iterator() : Collections.emptyIterator()));
+        while (!stack.isEmpty()) {
+            Frame<T, P> frame = stack.peek();
+            if (frame.children.hasNext()) {
+                T child = frame.children.next();
+                P childKey = getPrimaryKey(child);
+                if (!path.add(childKey)) {
+                    throw new TreeCycleException(cycleKeys(stack, childKey));
+                }
+                int depth = frame.depth + 1;
+                visitor.enter(child, depth);
+                stack.push(new Frame<>(child, childKey, depth, depth < maxDepth ? getChildren(childKey).iterator() : Collections.emptyIterator()));
+            } else {
+                stack.pop();
+                path.remove(frame.key);
+                if (frame.depth > 0) {
+                    visitor.exit(frame.entity, frame.depth);
+                }
+            }
+        }
+    }
+
+    /**
+     * 从栈中取出构成环的主键，首尾为同一个主键
+     */
+    private List<Object> cycleKeys(Deque<Frame<T, P>> stack, P repeatedKey) {
+        List<Object> keys = new ArrayList<>();
+        Iterator<Frame<T, P>> iterator = stack.descendingIterator();
+        boolean inCycle = false;
+        while (iterator.hasNext()) {
+            P key = iterator.next().key;
+            inCycle = inCycle || Objects.equals(key, repeatedKey);
+            if (inCycle) {
+                keys.add(key);
+            }
+        }
+        keys.add(repeatedKey);
+        return keys;
+    }
+
+    /**
+     * 遍历访问者
+     *
+     * @param <T> 实体类
+     */
+    interface Visitor<T> {
+
+        /**
+         * 进入元素，此时还未访问其子元素
+         *
+         * @param entity 元素
+         * @param depth  深度，开始遍历的主键的子元素为1
+         */
+        void enter(T entity, int depth);
+
+        /**
+         * 离开元素，此时已访问完其子孙元素
+         *
+         * @param entity 元素
+         * @param depth  深度
+         */
+        default void exit(T entity, int depth) {
+        }
+    }
+
+    /**
+     * 遍历栈中的一层
+     */
+    private static final class Frame<T, P> {
+        private final T entity;
+        private final P key;
+        private final int depth;
+        private final Iterator<T> children;
+
+        private Frame(T entity, P key, int depth, Iterator<T> children) {
+            this.entity = entity;
+            this.key = key;
+            this.depth = depth;
+            this.children = children;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.liujun.utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 数组形式的只读树索引<br/>
+ * 节点按前序存放，下标即前序编号；每个节点只占若干int，不创建节点对象，主键到下标的查找使用开放寻址的int数组<br/>
+ * 子孙节点在前序中连续，[下标+1, 下标+子树大小)即为全部子孙；
+ * 祖先/子孙判断比较前序、后序编号，O(1)<br/>
+ * 由TreeModel.getTreeIndex、TreeSubModel.getTreeIndex生成，只包含根元素及其子孙，线程安全
+ *
+ * @param <P> 主键类
+ * @author liujun
+ * @date 2026/10/18
+ */
+public final class TreeIndex<P> {
+
+    private final Object[] keys;
+
+    /**
+     * 主键->下标的开放寻址散列表，存放下标+1，0为空位；长度为2的幂且不小于节点数的2倍
+     */
+    private final int[] positions;
+
+    private final int[] parent;
+
+    private final int[] firstChild;
+
+    private final int[] nextSibling;
+
+    private final int[] postOrder;
+
+    private final int[] depth;
+
+    /**
+     * 子树大小(含自身)
+     */
+    private final int[] subtreeSize;
+
+    private TreeIndex(Object[] keys, int[] positions, int[] parent, int[] firstChild, int[] nextSibling, int[] postOrder, int[] depth, int[] subtreeSize) {
+        this.keys = keys;
+        this.positions = positions;
+        this.parent = parent;
+        this.firstChild = firstChild;
+        this.nextSibling = nextSibling;
+        this.postOrder = postOrder;
+        this.depth = depth;
+        this.subtreeSize = subtreeSize;
+    }
+
+    /**
+     * 从元素索引生成以root为根的树索引
+     *
+     * @param index 元素索引
+     * @param root  根元素
+     * @return 树索引
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    static <T, P> TreeIndex<P> of(TreeEntityIndex<T, P> index, T root) {
+        Builder<P> builder = new Builder<>();
+        builder.enter(index.getPrimaryKey(root), 0);
+        index.walk(index.getPrimaryKey(root), new TreeEntityIndex.Visitor<T>() {
+            @Override
+            public void enter(T entity, int depth) {
+                builder.enter(index.getPrimaryKey(entity), depth);
+            }
+
+            @Override
+            public void exit(T entity, int depth) {
+                builder.exit();
+            }
+        });
+        builder.exit();
+        return builder.build();
+    }
+
+    /**
+     * 按前序遍历顺序接收节点，生成各数组
+     */
+    private static final class Builder<P> {
+        private Object[] keys = new Object[16];
+        private int size;
+        /**
+         * 当前路径上的节点下标
+         */
+        private int[] stack = new int[16];
+        private int stackSize;
+        private int[] parent = new int[16];
+        private int[] firstChild = new int[16];
+        private int[] nextSibling = new int[16];
+        private int[] lastChild = new int[16];
+        private int[] postOrder = new int[16];
+        private int[] depth = new int[16];
+        private int[] subtreeSize = new int[16];
+        private int postCounter;
+
+        void enter(P key, int nodeDepth) {
+            int position = size;
+            if (position == parent.length) {
+                int capacity = position * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                lastChild = Arrays.copyOf(lastChild, capacity);
+                postOrder = Arrays.copyOf(postOrder, capacity);
+                depth = Arrays.copyOf(depth, capacity);
+                subtreeSize = Arrays.copyOf(subtreeSize, capacity);
+            }
+            keys[size++] = key;
+            int parentPosition = stackSize == 0 ? -1 : stack[stackSize - 1];
+            parent[position] = parentPosition;
+            firstChild[position] = -1;
+            nextSibling[position] = -1;
+            lastChild[position] = -1;
+            depth[position] = nodeDepth;
+            if (parentPosition >= 0) {
+                if (firstChild[parentPosition] < 0) {
+                    firstChild[parentPosition] = position;
+                } else {
+                    nextSibling[lastChild[parentPosition]] = position;
+                }
+                lastChild[parentPosition] = position;
+            }
+            if (stackSize == stack.length) {
+                stack = Arrays.copyOf(stack, stackSize * 2);
+            }
+            stack[stackSize++] = position;
+        }
+
+        void exit() {
+            int position = stack[--stackSize];
+            postOrder[position] = postCounter++;
+            subtreeSize[position] = size - position;
+        }
+
+        TreeIndex<P> build() {
+            Object[] allKeys = Arrays.copyOf(keys, size);
+            return new TreeIndex<>(allKeys, positions(allKeys), Arrays.copyOf(parent, size), Arrays.copyOf(firstChild, size),
+                    Arrays.copyOf(nextSibling, size), Arrays.copyOf(postOrder, size), Arrays.copyOf(depth, size), Arrays.copyOf(subtreeSize, size));
+        }
+    }
+
+    /**
+     * 建立主键->下标的散列表，主键重复时保留第一个
+     */
+    private static int[] positions(Object[] keys) {
+        int capacity = Integer.highestOneBit(Math.max(2, keys.length) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int position = 0; position < keys.length; position++) {
+            int slot = hash(keys[position]) & mask;
+            while (table[slot] != 0 && !Objects.equals(keys[table[slot] - 1], keys[position])) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == 0) {
+                table[slot] = position + 1;
+            }
+        }
+        return table;
+    }
+
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return 节点个数
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * 获取节点的前序编号(即下标)
+     *
+     * @param key 主键
+     * @return 前序编号，不存在时返回-1
+     */
+    public int indexOf(P key) {
+        int mask = positions.length - 1;
+        for (int slot = hash(key) & mask; positions[slot] != 0; slot = (slot + 1) & mask) {
+            int position = positions[slot] - 1;
+            if (Objects.equals(keys[position], key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 按前序编号获取主键
+     *
+     * @param index 前序编号
+     * @return 主键
+     */
+    @SuppressWarnings("unchecked")
+    public P getKey(int index) {
+        return (P) keys[index];
+    }
+
+    /**
+     * @return 根节点主键
+     */
+    public P getRootKey() {
+        return getKey(0);
+    }
+
+    /**
+     * 获取后序编号
+     *
+     * @param key 主键
+     * @return 后序编号，不存在时返回-1
+     */
+    public int getPostOrder(P key) {
+        int position = indexOf(key);
+        return position < 0 ? -1 : postOrder[position];
+    }
+
+    /**
+     * 获取深度，根节点为0
+     *
+     * @param key 主键
+     * @return 深度，不存在时返回-1
+     */
+    public int getDepth(P key) {
+        int position = indexOf(key);
+        return position < 0 ? -1 : depth[position];
+    }
+
+    /**
+     * 获取父节点主键
+     *
+     * @param key 主键
+     * @return 父节点主键，根节点或不存在时返回null
+     */
+    public P getParent(P key) {
+        int position = indexOf(key);
+        return position <= 0 ? null : getKey(parent[position]);
+    }
+
+    /**
+     * 判断descendant是否为ancestor的子孙(不含自身)，O(1)
+     *
+     * @param descendant 子孙主键
+     * @param ancestor   祖先主键
+     * @return 是否为子孙，任一主键不存在时返回false
+     */
+    public boolean isDescendant(P descendant, P ancestor) {
+        int descendantPosition = indexOf(descendant);
+        int ancestorPosition = indexOf(ancestor);
+        if (descendantPosition < 0 || ancestorPosition < 0) {
+            return false;
+        }
+        return ancestorPosition < descendantPosition && postOrder[descendantPosition] < postOrder[ancestorPosition];
+    }
+
+    /**
+     * 判断ancestor是否为descendant的祖先(不含自身)，O(1)
+     *
+     * @param ancestor   祖先主键
+     * @param descendant 子孙主键
+     * @return 是否为祖先，任一主键不存在时返回false
+     */
+    public boolean isAncestor(P ancestor, P descendant) {
+        return isDescendant(descendant, ancestor);
+    }
+
+    /**
+     * 获取子节点主键
+     *
+     * @param key 主键
+     * @return 子节点主键，按getAllEntity中的顺序，不存在时返回空列表
+     */
+    public List<P> getChildren(P key) {
+        int position = indexOf(key);
+        if (position < 0) {
+            return Collections.emptyList();
+        }
+        List<P> children = new ArrayList<>();
+        for (int child = firstChild[position]; child >= 0; child = nextSibling[child]) {
+            children.add(getKey(child));
+        }
+        return children;
+    }
+
+    /**
+     * 获取子孙节点个数(不含自身)
+     *
+     * @param key 主键
+     * @return 子孙节点个数，不存在时返回0
+     */
+    public int getDescendantCount(P key) {
+        int position = indexOf(key);
+        return position < 0 ? 0 : subtreeSize[position] - 1;
+    }
+
+    /**
+     * 获取全部子孙节点主键(不含自身)，按前序排列<br/>
+     * 返回前序中连续范围的只读视图，不复制
+     *
+     * @param key 主键
+     * @return 子孙节点主键，不存在时返回空列表
+     */
+    public List<P> getDescendants(P key) {
+        int position = indexOf(key);
+        if (position < 0) {
+            return Collections.emptyList();
+        }
+        int from = position + 1;
+        int to = position + subtreeSize[position];
+        return new AbstractList<P>() {
+            @Override
+            public P get(int index) {
+                if (index < 0 || index >= to - from) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+                }
+                return getKey(from + index);
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "TreeIndex{size=" + size() + ", root=" + (keys.length == 0 ? null : keys[0]) + "}";
+    }
+}
@@ -2,12 +2,25 @@ package com.liujun.utils;
 
 import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONWriter;
 
-import java.lang.reflect.Array;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * 树结构化通用父类<实体类,主键类>
@@ -17,6 +30,25 @@ import java.util.Set;
  */
 public abstract class TreeModel<T,P> {
 
+    /**
+     * 默认并行阈值，元素个数不超过该值时getTreeParallel在当前线程生成
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * 是否重写了getParentKey，第一次建立索引时判断
+     */
+    private volatile Boolean parentKeySupported;
+
+    /**
+     * 缓存模式下的索引
+     */
+    private final CachedTreeIndex<T, P> cache = new CachedTreeIndex<>();
+
+    private volatile boolean cacheEnabled;
+
+    private volatile long cacheTtlMillis;
+
     /**
      * 判断是否为子元素
      * @param parentPrimaryKey 父主键
@@ -46,6 +78,17 @@ public abstract class TreeModel<T,P> {
      */
     public abstract JSONObject getNode(T entity);
 
+    /**
+     * 将节点属性写入writer，writeTree时代替getNode调用<br/>
+     * 默认写入getNode的全部属性；树较大时可重写该方法直接写属性，不创建JSONObject
+     *
+     * @param entity 元素
+     * @param writer 已开始当前节点对象的JSONWriter，只需writeKey、writeValue写属性，children由调用方写入
+     */
+    public void writeNode(T entity, JSONWriter writer) {
+        TreeEntityIndex.writeProperties(getNode(entity), writer);
+    }
+
     /**
      * 获取元素主键
      * @param entity 元素
@@ -53,75 +96,307 @@ public abstract class TreeModel<T,P> {
      */
     public abstract P getPrimaryKey(T entity);
 
-    private void getTree(P parentPrimaryKey, JSONObject parentNode, List<T> allEntities) {
-        if(allEntities != null && !allEntities.isEmpty()) {
-            JSONArray childrenNodes = new JSONArray();
-            allEntities.stream().filter(entity -> isChild(parentPrimaryKey, entity)).forEach(entity -> {
-                P pk = getPrimaryKey(entity);
-                JSONObject childNode = getNode(entity);
-                childrenNodes.add(childNode);
-                //递归找孙节点
-                this.getTree(pk, childNode, allEntities);
-            });
-            parentNode.put("children", childrenNodes);
+    /**
+     * 获取元素的父主键<br/>
+     * 重写该方法后按父主键一次遍历建立索引，生成树的时间与元素个数成线性关系；
+     * 未重写时按isChild逐个比较，适用于无法用父主键表示的父子关系；默认实现返回null，即没有父元素
+     *
+     * @param entity 元素
+     * @return 父主键，null表示没有父元素
+     */
+    public P getParentKey(T entity) {
+        return null;
+    }
+
+    /**
+     * 建立元素索引
+     *
+     * @param allEntities 全部元素
+     * @return 索引
+     */
+    TreeEntityIndex<T, P> createIndex(List<T> allEntities) {
+        return createIndex(allEntities, null, 0);
+    }
+
+    /**
+     * 建立元素索引，重写了getParentKey且元素个数超过sequentialThreshold时在pool中并行分组
+     *
+     * @param allEntities         全部元素
+     * @param pool                线程池，为null时串行
+     * @param sequentialThreshold 串行阈值
+     * @return 索引
+     */
+    TreeEntityIndex<T, P> createIndex(List<T> allEntities, ForkJoinPool pool, int sequentialThreshold) {
+        Boolean supported = parentKeySupported;
+        if (supported == null) {
+            supported = TreeEntityIndex.overridesParentKey(getClass(), TreeModel.class);
+            parentKeySupported = supported;
         }
+        return supported ? TreeEntityIndex.byParentKeyParallel(allEntities, this::getPrimaryKey, this::getParentKey, pool, sequentialThreshold)
+                : TreeEntityIndex.byIsChild(allEntities, this::getPrimaryKey, this::isChild);
+    }
+
+    /**
+     * 开启缓存模式：索引只在第一次查询、过期或数据版本变化时通过getAllEntity加载，
+     * 之后的查询直接使用缓存的索引；数据变化时调用onInsert、onUpdate、onDelete增量修改索引<br/>
+     * 查询调用getNode、写出节点时不持有锁，期间的增量修改在索引副本上进行，不影响正在进行的查询
+     * @param ttlMillis 缓存有效期(毫秒)，小于等于0时不过期
+     */
+    public void enableCache(long ttlMillis) {
+        this.cacheTtlMillis = ttlMillis;
+        this.cacheEnabled = true;
+    }
+
+    /**
+     * 关闭缓存模式并清除缓存
+     */
+    public void disableCache() {
+        this.cacheEnabled = false;
+        cache.invalidate();
+    }
+
+    /**
+     * 清除缓存，下次查询重新加载
+     */
+    public void invalidateCache() {
+        cache.invalidate();
+    }
+
+    /**
+     * 获取数据版本，缓存模式下每次查询时调用，与加载时的版本不同则重新加载<br/>
+     * 默认返回null，不检查版本；可重写为查询最大修改时间等开销较小的操作
+     * @return 数据版本
+     */
+    public Object getDataVersion() {
+        return null;
+    }
+
+    /**
+     * 通知新增了元素，缓存已加载时加入索引，放在父元素的子元素末尾
+     * @param entity 元素
+     */
+    public void onInsert(T entity) {
+        cache.update(index -> index.insert(entity));
+    }
+
+    /**
+     * 通知修改了元素，缓存已加载时替换索引中主键相同的元素
+     * @param entity 元素
+     */
+    public void onUpdate(T entity) {
+        cache.update(index -> index.update(entity));
+    }
+
+    /**
+     * 通知删除了元素，缓存已加载时从索引中移除(不移除其子元素)
+     * @param entity 元素
+     */
+    public void onDelete(T entity) {
+        P primaryKey = getPrimaryKey(entity);
+        cache.update(index -> index.delete(Collections.singleton(primaryKey)));
+    }
+
+    /**
+     * 使用索引查询，缓存模式下使用缓存的索引，否则通过getAllEntity重新建立
+     */
+    private <R> R readIndex(Function<TreeEntityIndex<T, P>, R> reader) {
+        return readIndex(this::createIndex, reader);
+    }
+
+    private <R> R readIndex(Function<List<T>, TreeEntityIndex<T, P>> indexFactory, Function<TreeEntityIndex<T, P>, R> reader) {
+        if (!cacheEnabled) {
+            return reader.apply(indexFactory.apply(getAllEntity()));
+        }
+        return cache.read(() -> indexFactory.apply(new ArrayList<>(getAllEntity())), cacheTtlMillis, getDataVersion(), reader);
     }
 
     /**
      * 获取全部树
      * @return 树
+     * @throws TreeCycleException 父子关系中存在环
      */
     public JSONObject getTree() {
-        //获取全部数据
-        List<T> allEntities = getAllEntity();
         T rootEntity = getRootEntity();
         JSONObject rootNode = getNode(rootEntity);
         //生成树
-        this.getTree(getPrimaryKey(rootEntity), rootNode, allEntities);
-        return rootNode;
+        return readIndex(index -> {
+            index.fillChildren(getPrimaryKey(rootEntity), rootNode, this::getNode);
+            return rootNode;
+        });
+    }
+
+    /**
+     * 并行获取全部树，使用ForkJoinPool.commonPool()，元素个数不超过DEFAULT_PARALLEL_THRESHOLD时在当前线程生成
+     * @return 树，与getTree()相同
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public JSONObject getTreeParallel() {
+        return getTreeParallel(ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 在pool中并行获取全部树，适用于getNode开销较大的树，getNode需线程安全<br/>
+     * 重写了getParentKey时并行建立索引；节点按前序范围拆分为ForkJoin任务并行调用getNode，子元素顺序与getAllEntity中的顺序一致
+     * @param pool 线程池
+     * @param sequentialThreshold 元素个数不超过该值时在当前线程生成
+     * @return 树，与getTree()相同
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public JSONObject getTreeParallel(ForkJoinPool pool, int sequentialThreshold) {
+        T rootEntity = getRootEntity();
+        JSONObject rootNode = getNode(rootEntity);
+        return readIndex(entities -> createIndex(entities, pool, sequentialThreshold), index -> {
+            index.fillChildrenParallel(getPrimaryKey(rootEntity), rootNode, this::getNode, pool, sequentialThreshold);
+            return rootNode;
+        });
     }
 
     /**
-     * 获取主键为primaryKey开始的部分树
+     * 生成数组形式的只读树索引，用于祖先/子孙判断、深度、子孙范围等查询，不生成JSONObject
+     * @return 树索引，包含根元素及其全部子孙
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public TreeIndex<P> getTreeIndex() {
+        T rootEntity = getRootEntity();
+        return readIndex(index -> TreeIndex.of(index, rootEntity));
+    }
+
+    /**
+     * 获取主键为primaryKey开始的部分树，按主键索引定位，不再逐个比较
      * @param primaryKey 主键
-     * @return 树
+     * @return 树，主键为空或不存在时返回null
+     * @throws TreeCycleException 父子关系中存在环
      */
     public JSONObject getTree(P primaryKey) {
         if (primaryKey == null || primaryKey.toString().isEmpty()) {
             return null;
         }
-        //获取全部数据
-        List<T> allEntities = getAllEntity();
-        T t = allEntities.stream().filter(entity -> Objects.equals(getPrimaryKey(entity), primaryKey)).findFirst().get();
-        JSONObject node = getNode(t);
-        getTree(primaryKey, node, allEntities);
-        return node;
+        return readIndex(index -> index.getSubTree(primaryKey, this::getNode));
     }
 
     /**
-     * 删除主键为primaryKey的元素及其子元素
+     * 获取主键为primaryKey开始、最多maxDepth层的部分树，只为返回的元素调用getNode，适用于只展示前几层的页面<br/>
+     * 每个节点都有hasChildren标记；深度小于maxDepth的节点有children，深度为maxDepth的节点没有children，需要时通过getChildren展开<br/>
+     * 开启缓存时直接使用缓存的索引
      * @param primaryKey 主键
-     * @return 删除的元素个数
+     * @param maxDepth 最大深度，primaryKey的子元素深度为1，0时只返回primaryKey对应的节点
+     * @return 树，主键为空或不存在时返回null
+     * @throws TreeCycleException 父子关系中存在环
      */
-    public Integer removeEntityAndChildren(P primaryKey) {
-        List<T> allEntities = getAllEntity();
-        Set<P> needRemove = new HashSet<>();
-        needRemove.add(primaryKey);
-        findRemoveChildren(primaryKey, allEntities, needRemove);
-        if (!needRemove.isEmpty()) {
-            removeEntities(needRemove.toArray((P[]) Array.newInstance(primaryKey.getClass(), 0)));
+    public JSONObject getTree(P primaryKey, int maxDepth) {
+        if (primaryKey == null || primaryKey.toString().isEmpty()) {
+            return null;
+        }
+        return readIndex(index -> index.getSubTree(primaryKey, maxDepth, this::getNode));
+    }
+
+    /**
+     * 分页获取parentPrimaryKey的子节点，用于按需展开，每个节点都有hasChildren标记，没有children<br/>
+     * 开启缓存时直接使用缓存的索引
+     * @param parentPrimaryKey 父主键
+     * @param offset 跳过的子元素个数
+     * @param limit 最多返回的个数
+     * @return 子节点，按getAllEntity中的顺序
+     */
+    public JSONArray getChildren(P parentPrimaryKey, int offset, int limit) {
+        return readIndex(index -> index.getChildNodes(parentPrimaryKey, offset, limit, this::getNode));
+    }
+
+    /**
+     * 批量获取部分树，只加载一次全部数据、建立一次索引，每棵树的耗时与其大小成正比
+     * @param primaryKeys 主键
+     * @return 主键->树，按primaryKeys顺序，不包含空主键和不存在的主键
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public Map<P, JSONObject> getTrees(Collection<P> primaryKeys) {
+        if (primaryKeys == null || primaryKeys.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-        return needRemove.size();
+        return readIndex(index -> index.getSubTrees(primaryKeys, this::getNode));
+    }
+
+    /**
+     * 以流的方式将全部树写入out，不生成中间的JSONObject，内存占用与树的深度成正比<br/>
+     * 写入完成后flush，不关闭out
+     * @param out 输出
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public void writeTree(Writer out) throws IOException {
+        T rootEntity = getRootEntity();
+        JSONWriter writer = new JSONWriter(out);
+        readIndex(index -> {
+            index.writeTree(rootEntity, writer, this::writeNode);
+            return writer;
+        });
+        writer.flush();
+    }
+
+    /**
+     * 以流的方式将全部树按UTF-8写入out，写入完成后flush，不关闭out
+     * @param out 输出
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public void writeTree(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeTree(writer);
+        writer.flush();
     }
 
-    private void findRemoveChildren(P primaryKey, List<T> allEntities, Set<P> needRemove) {
-        if (allEntities != null && !allEntities.isEmpty()) {
-            allEntities.stream().filter(entity -> isChild(primaryKey, entity)).forEach(entity -> {
-                P childPk = getPrimaryKey(entity);
-                needRemove.add(childPk);
-                findRemoveChildren(childPk, allEntities, needRemove);
+    /**
+     * 以流的方式将主键为primaryKey开始的部分树写入out，primaryKey为空或不存在时写入null<br/>
+     * 写入完成后flush，不关闭out
+     * @param primaryKey 主键
+     * @param out 输出
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public void writeTree(P primaryKey, Writer out) throws IOException {
+        JSONWriter writer = new JSONWriter(out);
+        if (primaryKey == null || primaryKey.toString().isEmpty()) {
+            writer.writeValue(null);
+        } else {
+            readIndex(index -> {
+                T entity = index.getEntity(primaryKey);
+                if (entity == null) {
+                    writer.writeValue(null);
+                } else {
+                    index.writeTree(entity, writer, this::writeNode);
+                }
+                return writer;
             });
         }
+        writer.flush();
+    }
+
+    /**
+     * 删除主键为primaryKey的元素及其子元素，缓存模式下同时从索引中移除
+     * @param primaryKey 主键
+     * @return 删除的元素个数
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public Integer removeEntityAndChildren(P primaryKey) {
+        return removeEntityAndChildren(primaryKey, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * 分批删除主键为primaryKey的元素及其子元素<br/>
+     * 按后序删除，子元素总在父元素之前的批次或同一批次中，每批调用一次removeEntities；缓存模式下每批删除后从索引中移除
+     * @param primaryKey 主键
+     * @param batchSize 每批最多删除的个数
+     * @param listener 进度监听，可以为null
+     * @return 删除的元素个数
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public Integer removeEntityAndChildren(P primaryKey, int batchSize, TreeRemoveListener<P> listener) {
+        Set<P> needRemove = new LinkedHashSet<>();
+        readIndex(index -> {
+            index.collectDescendantKeys(primaryKey, needRemove);
+            return needRemove;
+        });
+        needRemove.add(primaryKey);
+        return TreeEntityIndex.removeInBatches(needRemove, batchSize, primaryKey.getClass(), batch -> {
+            removeEntities(batch);
+            cache.update(index -> index.delete(new HashSet<>(Arrays.asList(batch))));
+        }, listener);
     }
 
 }
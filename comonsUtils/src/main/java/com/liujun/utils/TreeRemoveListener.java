@@ -0,0 +1,21 @@
+package com.liujun.utils;
+
+/**
+ * 分批删除树元素的进度监听
+ *
+ * @param <P> 主键类
+ * @author liujun
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface TreeRemoveListener<P> {
+
+    /**
+     * 每批删除完成后调用
+     *
+     * @param removedKeys  本批删除的主键
+     * @param removedCount 已删除的个数(含本批)
+     * @param totalCount   需要删除的总个数
+     */
+    void onBatchRemoved(P[] removedKeys, int removedCount, int totalCount);
+}
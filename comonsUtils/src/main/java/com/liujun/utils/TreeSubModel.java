@@ -1,13 +1,20 @@
 package com.liujun.utils;
 
-import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.JSONWriter;
 
-import java.lang.reflect.Array;
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * 树结构化通用父类<实体类,主键类>
@@ -17,6 +24,16 @@ import java.util.Set;
  * @date 2023/6/27
  */
 public abstract class TreeSubModel<T, P> {
+    /**
+     * 是否重写了getParentKey，第一次建立索引时判断
+     */
+    private volatile Boolean parentKeySupported;
+
+    /**
+     * 按外键缓存的索引，为null时不缓存
+     */
+    private volatile TreeSubModelCache<T, P> cache;
+
     /**
      * 判断是否为子元素
      *
@@ -53,6 +70,17 @@ public abstract class TreeSubModel<T, P> {
      */
     public abstract JSONObject getNode(T entity);
 
+    /**
+     * 将节点属性写入writer，writeTree时代替getNode调用<br/>
+     * 默认写入getNode的全部属性；树较大时可重写该方法直接写属性，不创建JSONObject
+     *
+     * @param entity 元素
+     * @param writer 已开始当前节点对象的JSONWriter，只需writeKey、writeValue写属性，children由调用方写入
+     */
+    public void writeNode(T entity, JSONWriter writer) {
+        TreeEntityIndex.writeProperties(getNode(entity), writer);
+    }
+
     /**
      * 获取元素主键
      *
@@ -76,79 +104,242 @@ public abstract class TreeSubModel<T, P> {
      */
     public abstract T getEntity(P primaryKey);
 
+    /**
+     * 获取元素的父主键<br/>
+     * 重写该方法后按父主键一次遍历建立索引，生成树的时间与元素个数成线性关系；
+     * 未重写时按isChild逐个比较，适用于无法用父主键表示的父子关系；默认实现返回null，即没有父元素
+     *
+     * @param entity 元素
+     * @return 父主键，null表示没有父元素
+     */
+    public P getParentKey(T entity) {
+        return null;
+    }
+
+    /**
+     * 建立元素索引
+     *
+     * @param allEntities 全部元素
+     * @return 索引
+     */
+    TreeEntityIndex<T, P> createIndex(List<T> allEntities) {
+        return createIndex(allEntities, null, 0);
+    }
+
+    /**
+     * 建立元素索引，重写了getParentKey且元素个数超过sequentialThreshold时在pool中并行分组
+     *
+     * @param allEntities         全部元素
+     * @param pool                线程池，为null时串行
+     * @param sequentialThreshold 串行阈值
+     * @return 索引
+     */
+    TreeEntityIndex<T, P> createIndex(List<T> allEntities, ForkJoinPool pool, int sequentialThreshold) {
+        Boolean supported = parentKeySupported;
+        if (supported == null) {
+            supported = TreeEntityIndex.overridesParentKey(getClass(), TreeSubModel.class);
+            parentKeySupported = supported;
+        }
+        return supported ? TreeEntityIndex.byParentKeyParallel(allEntities, this::getPrimaryKey, this::getParentKey, pool, sequentialThreshold)
+                : TreeEntityIndex.byIsChild(allEntities, this::getPrimaryKey, this::isChild);
+    }
+
+    /**
+     * 开启按外键缓存：每个外键的索引只在第一次查询时通过getAllEntity加载，数量超过上限时淘汰最久未使用的外键<br/>
+     * 数据变化时调用invalidateCache清除对应外键
+     * @param maximumSize 最多缓存的外键数量
+     */
+    public void enableCache(int maximumSize) {
+        this.cache = new TreeSubModelCache<>(maximumSize);
+    }
+
+    /**
+     * 关闭缓存并清除全部索引
+     */
+    public void disableCache() {
+        this.cache = null;
+    }
+
+    /**
+     * @return 缓存，未开启时返回null
+     */
+    public TreeSubModelCache<T, P> getCache() {
+        return cache;
+    }
+
+    /**
+     * 清除外键对应的缓存，下次查询重新加载
+     * @param foreignKey 外键
+     */
+    public void invalidateCache(P foreignKey) {
+        TreeSubModelCache<T, P> current = cache;
+        if (current != null) {
+            current.invalidate(foreignKey);
+        }
+    }
+
+    /**
+     * 获取外键对应的索引，开启缓存时使用缓存的索引，否则通过getAllEntity重新建立
+     */
+    private TreeEntityIndex<T, P> getIndex(P foreignKey) {
+        return getIndex(foreignKey, null, 0);
+    }
 
-    private void getTree(P parentPrimaryKey, JSONObject parentNode, List<T> allEntities) {
-        if (allEntities != null && !allEntities.isEmpty()) {
-            JSONArray childrenNodes = new JSONArray();
-            allEntities.stream().filter(entity -> isChild(parentPrimaryKey, entity)).forEach(entity -> {
-                P pk = getPrimaryKey(entity);
-                JSONObject childNode = getNode(entity);
-                childrenNodes.add(childNode);
-                //递归找孙节点
-                this.getTree(pk, childNode, allEntities);
-            });
-            parentNode.put("children", childrenNodes);
+    private TreeEntityIndex<T, P> getIndex(P foreignKey, ForkJoinPool pool, int sequentialThreshold) {
+        TreeSubModelCache<T, P> current = cache;
+        if (current == null) {
+            return createIndex(getAllEntity(foreignKey), pool, sequentialThreshold);
         }
+        return current.get(foreignKey, () -> createIndex(getAllEntity(foreignKey), pool, sequentialThreshold));
     }
 
     /**
      * 获取全部树
      * @param foreignKey
      * @return
+     * @throws TreeCycleException 父子关系中存在环
      */
     public JSONObject getTree(P foreignKey) {
         //获取全部数据
-        List<T> allEntities = getAllEntity(foreignKey);
+        TreeEntityIndex<T, P> index = getIndex(foreignKey);
         T rootEntity = getRootEntity(foreignKey);
         JSONObject rootNode = getNode(rootEntity);
         //生成树
-        this.getTree(getPrimaryKey(rootEntity), rootNode, allEntities);
+        index.fillChildren(getPrimaryKey(rootEntity), rootNode, this::getNode);
+        return rootNode;
+    }
+
+    /**
+     * 并行获取外键为foreignKey的全部树，使用ForkJoinPool.commonPool()，元素个数不超过TreeModel.DEFAULT_PARALLEL_THRESHOLD时在当前线程生成
+     * @param foreignKey 外键
+     * @return 树，与getTree(foreignKey)相同
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public JSONObject getTreeParallel(P foreignKey) {
+        return getTreeParallel(foreignKey, ForkJoinPool.commonPool(), TreeModel.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 在pool中并行获取外键为foreignKey的全部树，适用于getNode开销较大的树，getNode需线程安全<br/>
+     * 重写了getParentKey时并行建立索引；节点按前序范围拆分为ForkJoin任务并行调用getNode，子元素顺序与getAllEntity中的顺序一致
+     * @param foreignKey 外键
+     * @param pool 线程池
+     * @param sequentialThreshold 元素个数不超过该值时在当前线程生成
+     * @return 树，与getTree(foreignKey)相同
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public JSONObject getTreeParallel(P foreignKey, ForkJoinPool pool, int sequentialThreshold) {
+        TreeEntityIndex<T, P> index = getIndex(foreignKey, pool, sequentialThreshold);
+        T rootEntity = getRootEntity(foreignKey);
+        JSONObject rootNode = getNode(rootEntity);
+        index.fillChildrenParallel(getPrimaryKey(rootEntity), rootNode, this::getNode, pool, sequentialThreshold);
         return rootNode;
     }
 
     /**
-     * 获取主键为primaryKey开始的部分树
+     * 生成外键为foreignKey的数组形式的只读树索引，用于祖先/子孙判断、深度、子孙范围等查询，不生成JSONObject
+     * @param foreignKey 外键
+     * @return 树索引，包含根元素及其全部子孙
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public TreeIndex<P> getTreeIndex(P foreignKey) {
+        TreeEntityIndex<T, P> index = getIndex(foreignKey);
+        return TreeIndex.of(index, getRootEntity(foreignKey));
+    }
+
+    /**
+     * 获取主键为primaryKey开始的部分树，按主键索引定位，不再逐个比较
      * @param foreignKey 外键
      * @param primaryKey 主键
-     * @return 树
+     * @return 树，主键为空或不存在时返回null
+     * @throws TreeCycleException 父子关系中存在环
      */
     public JSONObject getTree(P foreignKey, P primaryKey) {
         if (primaryKey == null || primaryKey.toString().isEmpty()) {
             return null;
         }
-        //获取全部数据
-        List<T> allEntities = getAllEntity(foreignKey);
-        T t = allEntities.stream().filter(entity -> Objects.equals(getPrimaryKey(entity), primaryKey)).findFirst().get();
-        JSONObject node = getNode(t);
-        getTree(primaryKey, node, allEntities);
-        return node;
+        return getIndex(foreignKey).getSubTree(primaryKey, this::getNode);
+    }
+
+    /**
+     * 批量获取外键为foreignKey的部分树，只加载一次全部数据、建立一次索引，每棵树的耗时与其大小成正比
+     * @param foreignKey 外键
+     * @param primaryKeys 主键
+     * @return 主键->树，按primaryKeys顺序，不包含空主键和不存在的主键
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public Map<P, JSONObject> getTrees(P foreignKey, Collection<P> primaryKeys) {
+        if (primaryKeys == null || primaryKeys.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return getIndex(foreignKey).getSubTrees(primaryKeys, this::getNode);
+    }
+
+    /**
+     * 以流的方式将外键为foreignKey的全部树写入out，不生成中间的JSONObject，内存占用与树的深度成正比<br/>
+     * 写入完成后flush，不关闭out
+     * @param foreignKey 外键
+     * @param out 输出
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public void writeTree(P foreignKey, Writer out) throws IOException {
+        TreeEntityIndex<T, P> index = getIndex(foreignKey);
+        T rootEntity = getRootEntity(foreignKey);
+        JSONWriter writer = new JSONWriter(out);
+        index.writeTree(rootEntity, writer, this::writeNode);
+        writer.flush();
+    }
+
+    /**
+     * 以流的方式将外键为foreignKey的全部树按UTF-8写入out，写入完成后flush，不关闭out
+     * @param foreignKey 外键
+     * @param out 输出
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public void writeTree(P foreignKey, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeTree(foreignKey, writer);
+        writer.flush();
     }
 
     /**
-     * 删除主键为primaryKey的数据以及其子数据
+     * 删除主键为primaryKey的数据以及其子数据<br/>
+     * 开启缓存时先按已缓存索引登记的主键->外键查找，找不到再调用getEntity；删除后清除该外键的缓存
      * @param primaryKey 主键
      * @return 删除的数据条数
+     * @throws TreeCycleException 父子关系中存在环
      */
     public Integer removeEntityAndChildren(P primaryKey) {
-        T entity = getEntity(primaryKey);
-        P foreignKey = getForeignKey(entity);
-        List<T> allEntities = getAllEntity(foreignKey);
-        Set<P> needRemove = new HashSet<>();
-        needRemove.add(primaryKey);
-        findRemoveChildren(primaryKey, allEntities, needRemove);
-        if (!needRemove.isEmpty()) {
-            removeEntities(needRemove.toArray((P[]) Array.newInstance(primaryKey.getClass(), 0)));
-        }
-        return needRemove.size();
+        return removeEntityAndChildren(primaryKey, Integer.MAX_VALUE, null);
     }
 
-    private void findRemoveChildren(P primaryKey, List<T> allEntities, Set<P> needRemove) {
-        if (allEntities != null && !allEntities.isEmpty()) {
-            allEntities.stream().filter(entity -> isChild(primaryKey, entity)).forEach(entity -> {
-                P childPk = getPrimaryKey(entity);
-                needRemove.add(childPk);
-                findRemoveChildren(childPk, allEntities, needRemove);
-            });
+    /**
+     * 分批删除主键为primaryKey的数据以及其子数据<br/>
+     * 按后序删除，子数据总在父数据之前的批次或同一批次中，每批调用一次removeEntities；删除后清除该外键的缓存
+     * @param primaryKey 主键
+     * @param batchSize 每批最多删除的条数
+     * @param listener 进度监听，可以为null
+     * @return 删除的数据条数
+     * @throws TreeCycleException 父子关系中存在环
+     */
+    public Integer removeEntityAndChildren(P primaryKey, int batchSize, TreeRemoveListener<P> listener) {
+        TreeSubModelCache<T, P> current = cache;
+        P foreignKey = current == null ? null : current.findForeignKey(primaryKey);
+        if (foreignKey != null && getIndex(foreignKey).getEntity(primaryKey) == null) {
+            //登记的外键已失效(如索引在查找后被清除重新加载，元素已移到其他外键)
+            foreignKey = null;
+        }
+        if (foreignKey == null) {
+            T entity = getEntity(primaryKey);
+            foreignKey = getForeignKey(entity);
+        }
+        Set<P> needRemove = new LinkedHashSet<>();
+        getIndex(foreignKey).collectDescendantKeys(primaryKey, needRemove);
+        needRemove.add(primaryKey);
+        try {
+            return TreeEntityIndex.removeInBatches(needRemove, batchSize, primaryKey.getClass(), this::removeEntities, listener);
+        } finally {
+            invalidateCache(foreignKey);
         }
     }
 }
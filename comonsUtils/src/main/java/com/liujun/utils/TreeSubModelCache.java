@@ -0,0 +1,224 @@
+package com.liujun.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * TreeSubModel按外键缓存的树索引<br/>
+ * 数量超过上限时淘汰最久未使用的外键；同一外键同时只有一个线程加载，其他线程等待加载结果<br/>
+ * 加载完成的索引只读，可被多个线程同时查询
+ *
+ * @param <T> 实体类
+ * @param <P> 主键类
+ * @author liujun
+ * @date 2026/10/18
+ */
+public class TreeSubModelCache<T, P> {
+
+    /**
+     * 默认最大缓存数量
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /**
+     * 外键->索引，按访问顺序排列，由自身加锁
+     */
+    private final LinkedHashMap<P, CompletableFuture<TreeEntityIndex<T, P>>> indexes = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 已加载完成的索引中主键->外键，与indexes一起修改
+     */
+    private final ConcurrentHashMap<P, P> foreignKeys = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private volatile int maximumSize;
+
+    public TreeSubModelCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public TreeSubModelCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * 获取外键对应的索引，未缓存时由当前线程加载，正在被其他线程加载时等待
+     *
+     * @param foreignKey 外键
+     * @param loader     加载索引
+     * @return 索引
+     */
+    TreeEntityIndex<T, P> get(P foreignKey, Supplier<TreeEntityIndex<T, P>> loader) {
+        CompletableFuture<TreeEntityIndex<T, P>> future;
+        boolean load = false;
+        synchronized (indexes) {
+            future = indexes.get(foreignKey);
+            if (future == null) {
+                missCount.increment();
+                future = new CompletableFuture<>();
+                indexes.put(foreignKey, future);
+                evict();
+                load = true;
+            } else {
+                hitCount.increment();
+            }
+        }
+        if (load) {
+            try {
+                TreeEntityIndex<T, P> index = loader.get();
+                synchronized (indexes) {
+                    //加载期间被清除或淘汰的索引不登记主键
+                    if (indexes.get(foreignKey) == future) {
+                        for (P primaryKey : index.primaryKeys()) {
+                            foreignKeys.put(primaryKey, foreignKey);
+                        }
+                    }
+                    //在锁内完成，清除、淘汰时总能看到已完成的索引并移除登记
+                    future.complete(index);
+                }
+            } catch (RuntimeException | Error e) {
+                //加载失败不缓存，等待中的线程抛出同一异常
+                synchronized (indexes) {
+                    indexes.remove(foreignKey, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 在已缓存的索引中查找主键所属的外键，O(1)
+     *
+     * @param primaryKey 主键
+     * @return 外键，未缓存时返回null
+     */
+    P findForeignKey(P primaryKey) {
+        return foreignKeys.get(primaryKey);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<P, CompletableFuture<TreeEntityIndex<T, P>>>> iterator = indexes.entrySet().iterator();
+        while (indexes.size() > maximumSize && iterator.hasNext()) {
+            Map.Entry<P, CompletableFuture<TreeEntityIndex<T, P>>> entry = iterator.next();
+            iterator.remove();
+            unregister(entry.getKey(), entry.getValue());
+            evictionCount.increment();
+        }
+    }
+
+    /**
+     * 移除索引登记的主键，主键已登记到其他外键时保留
+     */
+    private void unregister(P foreignKey, CompletableFuture<TreeEntityIndex<T, P>> future) {
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            for (P primaryKey : future.join().primaryKeys()) {
+                foreignKeys.remove(primaryKey, foreignKey);
+            }
+        }
+    }
+
+    /**
+     * 清除外键对应的索引，下次查询重新加载
+     *
+     * @param foreignKey 外键
+     */
+    public void invalidate(P foreignKey) {
+        synchronized (indexes) {
+            unregister(foreignKey, indexes.remove(foreignKey));
+        }
+    }
+
+    /**
+     * 清空全部索引
+     */
+    public void invalidateAll() {
+        synchronized (indexes) {
+            indexes.clear();
+            foreignKeys.clear();
+        }
+    }
+
+    /**
+     * 设置最大缓存数量
+     *
+     * @param maximumSize 最大缓存数量，必须大于0
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize必须大于0: " + maximumSize);
+        }
+        synchronized (indexes) {
+            this.maximumSize = maximumSize;
+            evict();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return 当前缓存的外键数量
+     */
+    public int size() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 重置命中、未命中、淘汰次数
+     */
+    public void resetStats() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "TreeSubModelCache{size=" + size() + ", maximumSize=" + maximumSize + ", hitCount=" + getHitCount()
+                + ", missCount=" + getMissCount() + ", evictionCount=" + getEvictionCount() + "}";
+    }
+}